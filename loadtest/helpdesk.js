@@ -0,0 +1,121 @@
+// Closed-model load test: VUS concurrent clients, each issuing requests back to back.
+// Used to compare the platform-thread and virtual-threads modes; see README "Load Testing".
+//
+//   k6 run -e MODE=platform -e VUS=1000 loadtest/helpdesk.js
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+const TICKET_URL = __ENV.TICKET_URL || 'http://localhost:8080';
+const STATUS_URL = __ENV.STATUS_URL || 'http://localhost:8081';
+const MODE = __ENV.MODE || 'platform';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+const DURATION = __ENV.DURATION || '2m';
+// Must be a user created by UserService.init in both services
+const USERNAME = __ENV.USERNAME || 'naman.punn';
+const PASSWORD = __ENV.PASSWORD || 'password123';
+const SEED_TICKETS = 50;
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: DURATION,
+            gracefulStop: '30s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// setup() aborts the run on any failure, so a misconfigured run never measures error responses
+function login(baseUrl) {
+    const response = http.post(`${baseUrl}/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    if (response.status !== 200 || !response.json('data.token')) {
+        fail(`login as ${USERNAME} at ${baseUrl} failed with HTTP ${response.status}`);
+    }
+    return response.json('data.token');
+}
+
+function headers(token) {
+    return { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } };
+}
+
+// Tokens and seed tickets are created once and shared by every client
+export function setup() {
+    const ticketToken = login(TICKET_URL);
+    const statusToken = login(STATUS_URL);
+    const ticketIds = [];
+
+    for (let i = 0; i < SEED_TICKETS; i++) {
+        const response = http.post(`${TICKET_URL}/tickets/create`, JSON.stringify({
+            employeeId: `EMP${String(i % 10).padStart(3, '0')}`,
+            employeeName: 'Load Test',
+            category: 'SOFTWARE',
+            description: `Load test ticket number ${i}`,
+            priority: ['LOW', 'MEDIUM', 'HIGH'][i % 3],
+        }), headers(ticketToken));
+        if (response.status !== 201) {
+            fail(`creating seed ticket ${i} failed with HTTP ${response.status}`);
+        }
+        ticketIds.push(response.json('data.ticketId'));
+
+        const status = http.post(`${STATUS_URL}/status/update`, JSON.stringify({
+            ticketId: ticketIds[i],
+            status: 'OPEN',
+            updatedBy: 'loadtest',
+            comments: 'Seeded by the load test',
+        }), headers(statusToken));
+        if (status.status !== 201) {
+            fail(`seeding status for ${ticketIds[i]} failed with HTTP ${status.status}`);
+        }
+    }
+
+    return { ticketToken, statusToken, ticketIds };
+}
+
+// Read-heavy mix that exercises point reads, pages and the status service
+export default function (data) {
+    const ticketId = data.ticketIds[Math.floor(Math.random() * data.ticketIds.length)];
+    const roll = Math.random();
+    let response;
+
+    if (roll < 0.5) {
+        response = http.get(`${TICKET_URL}/tickets/${ticketId}`,
+            Object.assign(headers(data.ticketToken), { tags: { name: 'GET /tickets/{id}' } }));
+    } else if (roll < 0.7) {
+        response = http.get(`${TICKET_URL}/tickets/all?limit=20&fields=ticketId,priority,slaDueDate`,
+            Object.assign(headers(data.ticketToken), { tags: { name: 'GET /tickets/all' } }));
+    } else if (roll < 0.9) {
+        response = http.get(`${STATUS_URL}/status/${ticketId}`,
+            Object.assign(headers(data.statusToken), { tags: { name: 'GET /status/{id}' } }));
+    } else {
+        response = http.get(`${STATUS_URL}/status/${ticketId}/history?limit=20`,
+            Object.assign(headers(data.statusToken), { tags: { name: 'GET /status/{id}/history' } }));
+    }
+
+    // 503 is the bulkhead shedding load; it is counted separately from errors
+    check(response, {
+        'ok': (r) => r.status === 200,
+        'not an error': (r) => r.status === 200 || r.status === 503,
+    });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const result = {
+        mode: MODE,
+        vus: VUS,
+        duration: DURATION,
+        requestsPerSecond: data.metrics.http_reqs.values.rate,
+        p99Millis: duration['p(99)'],
+        p95Millis: duration['p(95)'],
+        failedRate: data.metrics.http_req_failed.values.rate,
+    };
+
+    return {
+        stdout: JSON.stringify(result, null, 2) + '\n',
+        [`loadtest/results/${MODE}-${VUS}.json`]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Runs the k6 mix at 1k, 5k and 10k concurrent clients against services that are already
+# running, labelling the results with MODE. Start both services once without a profile
+# (MODE=platform) and once with SPRING_PROFILES_ACTIVE=local,virtual-threads, then compare
+# loadtest/results/*.json.
+set -euo pipefail
+
+MODE=${MODE:-platform}
+DURATION=${DURATION:-2m}
+
+mkdir -p loadtest/results
+
+for vus in 1000 5000 10000; do
+    echo "== ${MODE}: ${vus} concurrent clients"
+    k6 run --quiet -e MODE="${MODE}" -e VUS="${vus}" -e DURATION="${DURATION}" loadtest/helpdesk.js
+done
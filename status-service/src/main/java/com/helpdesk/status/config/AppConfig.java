@@ -1,9 +1,15 @@
 package com.helpdesk.status.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.helpdesk.status.util.IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 
 @Configuration
 public class AppConfig {
@@ -12,6 +18,19 @@ public class AppConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        // Field filters are only set per response by ?fields=; everything else serializes in full
+        mapper.setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
         return mapper;
     }
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${id-generator.node-id:-1}") int nodeId,
+                                   @Value("${id-generator.stateful-set:false}") boolean statefulSet,
+                                   @Value("${id-generator.pod-name:}") String podName,
+                                   @Value("${firestore.emulator.enabled:true}") boolean emulator,
+                                   Environment environment) {
+        // Only a single instance against the emulator, with no profile or the local profile, is local
+        boolean local = emulator && environment.acceptsProfiles(Profiles.of("default | local"));
+        return IdGenerator.forNode(nodeId, statefulSet ? podName : null, local);
+    }
 }
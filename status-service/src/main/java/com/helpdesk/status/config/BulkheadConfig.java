@@ -0,0 +1,58 @@
+package com.helpdesk.status.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+// Wraps every @Repository bean in its own RepositoryBulkhead. The per-repository limit
+// (bulkhead.repositories.<bean name>.max-concurrent) falls back to bulkhead.max-concurrent.
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    // Static so that registering the post-processor does not initialize this configuration early
+    @Bean
+    public static BeanPostProcessor repositoryBulkheads(Environment environment,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        int defaultMaxConcurrent = environment.getProperty("bulkhead.max-concurrent", Integer.class, 64);
+        Duration maxWait = environment.getProperty("bulkhead.max-wait", Duration.class, Duration.ofMillis(500));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!AnnotatedElementUtils.hasAnnotation(bean.getClass(), Repository.class)) {
+                    return bean;
+                }
+
+                int maxConcurrent = environment.getProperty(
+                        "bulkhead.repositories." + beanName + ".max-concurrent", Integer.class, defaultMaxConcurrent);
+                RepositoryBulkhead bulkhead = new RepositoryBulkhead(beanName, maxConcurrent, maxWait);
+
+                meterRegistry.ifAvailable(registry -> Gauge.builder("bulkhead.available", bulkhead,
+                                RepositoryBulkhead::availablePermits)
+                        .description("Free permits of a repository's Firestore bulkhead")
+                        .tag("repository", beanName)
+                        .register(registry));
+
+                log.info("Bulkhead for {}: {} concurrent call(s), max wait {}", beanName, maxConcurrent, maxWait);
+
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(bulkhead);
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+}
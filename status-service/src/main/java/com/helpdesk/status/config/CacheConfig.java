@@ -0,0 +1,75 @@
+package com.helpdesk.status.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.StatusSummary;
+import com.helpdesk.status.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Configuration
+public class CacheConfig {
+
+    // Read-through cache of the latest status per ticket ID; max-size 0 disables it
+    @Bean
+    public Cache<String, StatusHistory> currentStatusCache(
+            @Value("${cache.current-status.max-size:10000}") long maxSize,
+            @Value("${cache.current-status.ttl:1m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        Cache<String, StatusHistory> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "current-status");
+    }
+
+    // Rollup counts of buckets that ended in the past (and legacy ranges), which never change
+    // again; the bounds only cap memory, so entries expire after going unread
+    @Bean
+    public Cache<String, long[]> closedRollupBuckets(
+            @Value("${cache.closed-rollup-buckets.max-size:20000}") long maxSize,
+            @Value("${cache.closed-rollup-buckets.ttl:6h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        Cache<String, long[]> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "closed-rollup-buckets");
+    }
+
+    // Summaries of past days, which can no longer receive updates
+    @Bean
+    public Cache<LocalDate, StatusSummary> closedDaySummaries(
+            @Value("${cache.closed-day-summaries.max-size:400}") long maxSize,
+            @Value("${cache.closed-day-summaries.ttl:6h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        Cache<LocalDate, StatusSummary> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "closed-day-summaries");
+    }
+
+    // Concurrent cache misses for one ticket's current status share a single Firestore read
+    @Bean
+    public SingleFlight<String, Optional<StatusHistory>> currentStatusReads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("current-status-reads", meterRegistry);
+    }
+}
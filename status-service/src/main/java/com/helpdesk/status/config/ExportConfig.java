@@ -0,0 +1,41 @@
+package com.helpdesk.status.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// Streaming exports outlive every other async request, so they get export.timeout while the
+// rest keep the default async timeout. Exports are the only handlers returning a
+// StreamingResponseBody, the one return type that Spring runs as a Callable here.
+@Configuration
+public class ExportConfig {
+
+    @Value("${export.timeout:30m}")
+    private Duration exportTimeout;
+
+    @Bean
+    public WebMvcConfigurer exportTimeoutConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        // Runs before the async request starts, while its timeout can still change
+                        if (request instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(exportTimeout.toMillis());
+                        }
+                    }
+                });
+            }
+        };
+    }
+}
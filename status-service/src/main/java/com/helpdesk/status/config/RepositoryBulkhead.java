@@ -0,0 +1,95 @@
+package com.helpdesk.status.config;
+
+import com.google.cloud.firestore.UpdateBuilder;
+import com.helpdesk.status.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps the calls in flight against one repository. Blocking methods hold a permit until they
+// return and wait up to maxWait for one, which is cheap on virtual threads. Methods returning a
+// CompletableFuture hold it until the future completes but never wait: they may be called from
+// Firestore callback threads, so a full bulkhead fails them immediately. Either way the caller
+// sees a ServiceUnavailableException (503 with Retry-After).
+@Slf4j
+public class RepositoryBulkhead implements MethodInterceptor {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public RepositoryBulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!Modifier.isPublic(method.getModifiers()) || stagesWritesOnly(method)) {
+            return invocation.proceed();
+        }
+
+        boolean async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+        if (!acquire(async)) {
+            log.warn("Bulkhead {} is full, rejecting {}", name, method.getName());
+            ServiceUnavailableException rejection = new ServiceUnavailableException(
+                    "Too many concurrent requests to " + name + ", please retry shortly");
+            if (async) {
+                return CompletableFuture.failedFuture(rejection);
+            }
+            throw rejection;
+        }
+
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable t) {
+            permits.release();
+            throw t;
+        }
+
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, error) -> permits.release());
+        } else {
+            permits.release();
+        }
+        return result;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean acquire(boolean async) {
+        if (async) {
+            return permits.tryAcquire();
+        }
+
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for " + name, e);
+        }
+    }
+
+    // Methods that only add writes to the caller's batch or transaction do no I/O of their own,
+    // and they run inside transaction callbacks where blocking is not allowed
+    private static boolean stagesWritesOnly(Method method) {
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (UpdateBuilder.class.isAssignableFrom(parameterType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,10 +1,16 @@
 package com.helpdesk.status.controller;
 
 import com.helpdesk.status.dto.ApiResponse;
+import com.helpdesk.status.dto.CurrentStatusBatchRequest;
 import com.helpdesk.status.dto.TicketStatusResponse;
 import com.helpdesk.status.dto.UpdateStatusRequest;
+import com.helpdesk.status.exception.InvalidRequestException;
 import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.StatusRangeSummary;
 import com.helpdesk.status.model.StatusSummary;
+import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.service.StatusExportService;
+import com.helpdesk.status.service.StatusRollupService;
 import com.helpdesk.status.service.StatusService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,12 +19,20 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -28,55 +42,148 @@ import java.util.List;
 public class StatusController {
 
     private final StatusService statusService;
+    private final StatusExportService statusExportService;
+    private final StatusRollupService statusRollupService;
 
     @PostMapping("/update")
     @Operation(summary = "Update ticket status", description = "Updates the status of a ticket and creates a history entry")
-    public ResponseEntity<ApiResponse<StatusHistory>> updateStatus(
+    public CompletableFuture<ResponseEntity<ApiResponse<StatusHistory>>> updateStatus(
             @Valid @RequestBody UpdateStatusRequest request) {
 
         log.info("Received request to update status for ticket: {}", request.getTicketId());
 
-        StatusHistory statusHistory = statusService.updateStatus(request);
+        return statusService.updateStatus(request).thenApply(statusHistory -> {
+            ApiResponse<StatusHistory> response = ApiResponse.success(
+                    "Ticket status updated successfully",
+                    statusHistory
+            );
 
-        ApiResponse<StatusHistory> response = ApiResponse.success(
-                "Ticket status updated successfully",
-                statusHistory
-        );
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    @PostMapping("/current/batch")
+    @Operation(summary = "Get current status for many tickets",
+            description = "Resolves the current status of up to 500 tickets in as few Firestore round trips as possible")
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, StatusHistory>>>> getCurrentStatuses(
+            @Valid @RequestBody CurrentStatusBatchRequest request) {
+
+        log.info("Received request to fetch current status for {} ticket(s)", request.getTicketIds().size());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return statusService.getCurrentStatuses(request.getTicketIds()).thenApply(statuses -> {
+            ApiResponse<Map<String, StatusHistory>> response = ApiResponse.success(
+                    "Current statuses retrieved successfully",
+                    statuses
+            );
+
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/{ticketId}")
     @Operation(summary = "Get current ticket status", description = "Retrieves the current status of a specific ticket")
-    public ResponseEntity<ApiResponse<StatusHistory>> getCurrentStatus(
+    public CompletableFuture<ResponseEntity<ApiResponse<StatusHistory>>> getCurrentStatus(
             @Parameter(description = "Ticket ID", example = "TKT-1737456789012")
             @PathVariable String ticketId) {
 
         log.info("Received request to fetch current status for ticket: {}", ticketId);
 
-        StatusHistory status = statusService.getCurrentStatus(ticketId);
-
-        ApiResponse<StatusHistory> response = ApiResponse.success(
-                "Current status retrieved successfully",
-                status
-        );
+        return statusService.getCurrentStatus(ticketId).thenApply(status -> {
+            ApiResponse<StatusHistory> response = ApiResponse.success(
+                    "Current status retrieved successfully",
+                    status
+            );
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/{ticketId}/history")
-    @Operation(summary = "Get ticket status history", description = "Retrieves complete status update history for a ticket")
-    public ResponseEntity<ApiResponse<TicketStatusResponse>> getStatusHistory(
+    @Operation(summary = "Get ticket status history", description = "Retrieves one page of a ticket's status history, newest first")
+    public CompletableFuture<ResponseEntity<ApiResponse<TicketStatusResponse>>> getStatusHistory(
             @Parameter(description = "Ticket ID", example = "TKT-1737456789012")
-            @PathVariable String ticketId) {
+            @PathVariable String ticketId,
+            @Parameter(description = "Page size (default 100, max 500)")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "beforeCursor from a previous page, for older entries")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "afterCursor from a previous page, for newer entries")
+            @RequestParam(required = false) String after) {
 
         log.info("Received request to fetch status history for ticket: {}", ticketId);
 
-        TicketStatusResponse history = statusService.getTicketStatusHistory(ticketId);
+        return statusService.getTicketStatusHistory(ticketId, limit, before, after).thenApply(history -> {
+            ApiResponse<TicketStatusResponse> response = ApiResponse.success(
+                    "Status history retrieved successfully",
+                    history
+            );
+
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/count")
+    @Operation(summary = "Count status updates", description = "Counts status updates matching the filters with a server-side aggregation")
+    public CompletableFuture<ResponseEntity<ApiResponse<Long>>> countStatusUpdates(
+            @Parameter(description = "Only updates to this status") @RequestParam(required = false) TicketStatus status,
+            @Parameter(description = "Updated at or after, ISO date-time", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Updated before, ISO date-time", example = "2026-02-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("Received request to count status updates");
+
+        return statusService.countStatusUpdates(status, from, to).thenApply(count -> {
+            ApiResponse<Long> response = ApiResponse.success(
+                    "Status updates counted successfully",
+                    count
+            );
+
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/current/count")
+    @Operation(summary = "Count tickets by current status", description = "Number of tickets currently in each status, from server-side aggregations")
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<TicketStatus, Long>>>> countTicketsByCurrentStatus() {
+
+        log.info("Received request to count tickets by current status");
 
-        ApiResponse<TicketStatusResponse> response = ApiResponse.success(
-                "Status history retrieved successfully",
-                history
+        return statusService.countTicketsByCurrentStatus().thenApply(counts -> {
+            ApiResponse<Map<TicketStatus, Long>> response = ApiResponse.success(
+                    "Ticket counts retrieved successfully",
+                    counts
+            );
+
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Get status summary for a date range",
+            description = "Counts status changes by new status between two dates (inclusive), served from pre-aggregated rollups")
+    public ResponseEntity<ApiResponse<StatusRangeSummary>> getRangeSummary(
+            @Parameter(description = "First day, YYYY-MM-DD", example = "2026-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, YYYY-MM-DD", example = "2026-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Time zone the days are interpreted in", example = "Europe/Berlin")
+            @RequestParam(defaultValue = "UTC") String zone) {
+
+        log.info("Received request to fetch status summary from {} to {} ({})", from, to, zone);
+
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new InvalidRequestException("Invalid time zone: " + zone);
+        }
+
+        StatusRangeSummary summary = statusRollupService.getSummary(from, to, zoneId);
+
+        ApiResponse<StatusRangeSummary> response = ApiResponse.success(
+                "Status summary retrieved successfully",
+                summary
         );
 
         return ResponseEntity.ok(response);
@@ -115,18 +222,54 @@ public class StatusController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all status updates", description = "Streams every status update as NDJSON (default) or CSV for bulk extracts")
+    public ResponseEntity<StreamingResponseBody> exportStatusUpdates(
+            @Parameter(description = "Output format: ndjson or csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("Received request to export status updates as {}", format);
+
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = statusExportService::writeCsv;
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=status-updates.csv")
+                    .body(body);
+        }
+
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+
+        StreamingResponseBody body = statusExportService::writeNdjson;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=status-updates.ndjson")
+                .body(body);
+    }
+
     @GetMapping("/all")
-    @Operation(summary = "Get all status updates", description = "Retrieves all status updates across all tickets")
-    public ResponseEntity<ApiResponse<List<StatusHistory>>> getAllStatusUpdates() {
+    @Operation(summary = "Get all status updates", description = "Retrieves one page of status updates across all tickets, newest first")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<StatusHistory>>>> getAllStatusUpdates(
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Continuation token returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Comma-separated properties to return, e.g. ticketId,status,updatedAt")
+            @RequestParam(required = false) String fields) {
 
         log.info("Received request to fetch all status updates");
 
-        List<StatusHistory> statusUpdates = statusService.getAllStatusUpdates();
+        return statusService.getAllStatusUpdates(limit, cursor, fields).thenApply(page -> {
+            ApiResponse<List<StatusHistory>> response = ApiResponse.success(
+                    String.format("Found %d status update(s)", page.items().size()),
+                    page.items(),
+                    page.nextCursor()
+            );
 
-        ApiResponse<List<StatusHistory>> response = ApiResponse.success(
-                String.format("Found %d status update(s)", statusUpdates.size()),
-                statusUpdates
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }}
\ No newline at end of file
@@ -19,4 +19,8 @@ public class TicketStatusResponse {
     private TicketStatus currentStatus;
     private List<StatusHistory> statusHistory;
     private int totalUpdates;
+
+    // Pass as 'before' for older entries or 'after' for newer ones; null when there are none
+    private String beforeCursor;
+    private String afterCursor;
 }
\ No newline at end of file
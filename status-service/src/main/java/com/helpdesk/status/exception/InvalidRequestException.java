@@ -0,0 +1,7 @@
+package com.helpdesk.status.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.helpdesk.status.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.helpdesk.status.util.FieldSelection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,11 +11,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class StatusHistory {
 
+    public static final String ID_PREFIX = "STS-";
+
     @DocumentId
     private String statusId;
 
@@ -22,8 +27,4 @@ public class StatusHistory {
     private String updatedBy;
     private LocalDateTime updatedAt;
     private String comments;
-
-    public static String generateStatusId() {
-        return "STS-" + System.currentTimeMillis();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.helpdesk.status.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Status changes recorded in [from, to] (both inclusive, in the given zone), counted by new status
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusRangeSummary {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String zone;
+    private long openCount;
+    private long inProgressCount;
+    private long resolvedCount;
+    private long closedCount;
+    private long totalCount;
+}
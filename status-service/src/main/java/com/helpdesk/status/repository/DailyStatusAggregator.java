@@ -0,0 +1,58 @@
+package com.helpdesk.status.repository;
+
+import com.helpdesk.status.model.TicketStatus;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Folds a day's status events into the latest status per ticket in one pass, so the cost is
+// linear in the number of events. Events may arrive in any order; on equal timestamps the
+// further-along status wins, which keeps the result independent of arrival order.
+// Not thread-safe: feed it from a single thread or stream.
+public class DailyStatusAggregator {
+
+    private final Map<String, Latest> latestByTicket = new HashMap<>();
+    private long events;
+
+    public void accept(String ticketId, TicketStatus status, long updatedAtMillis) {
+        events++;
+
+        Latest latest = latestByTicket.get(ticketId);
+        if (latest == null) {
+            latestByTicket.put(ticketId, new Latest(status, updatedAtMillis));
+        } else if (updatedAtMillis > latest.updatedAt
+                || (updatedAtMillis == latest.updatedAt && status.ordinal() > latest.status.ordinal())) {
+            latest.status = status;
+            latest.updatedAt = updatedAtMillis;
+        }
+    }
+
+    public long eventCount() {
+        return events;
+    }
+
+    public Map<TicketStatus, Long> summary() {
+        long[] counts = new long[TicketStatus.values().length];
+        for (Latest latest : latestByTicket.values()) {
+            counts[latest.status.ordinal()]++;
+        }
+
+        Map<TicketStatus, Long> summary = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            summary.put(status, counts[status.ordinal()]);
+        }
+        return summary;
+    }
+
+    // Mutable so that a newer event updates the entry in place instead of allocating
+    private static final class Latest {
+        private TicketStatus status;
+        private long updatedAt;
+
+        private Latest(TicketStatus status, long updatedAt) {
+            this.status = status;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.helpdesk.status.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.helpdesk.status.exception.StatusServiceException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+final class FirestoreFutures {
+
+    private FirestoreFutures() {
+    }
+
+    // Completes on the Firestore callback thread, so continuations must stay short and never block.
+    // Failures are logged and surfaced as StatusServiceException, like the blocking repository methods.
+    static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture, String errorMessage) {
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                apiFuture.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("{}: {}", errorMessage, t.getMessage(), t);
+                future.completeExceptionally(new StatusServiceException(errorMessage, t));
+            }
+        }, Runnable::run);
+
+        return future;
+    }
+}
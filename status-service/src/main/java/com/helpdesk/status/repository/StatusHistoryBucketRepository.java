@@ -0,0 +1,221 @@
+package com.helpdesk.status.repository;
+
+import com.google.cloud.firestore.*;
+import com.helpdesk.status.model.StatusHistory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Status history per ticket in fixed-size, append-only bucket documents. The ticket's
+// current-status document tracks the open bucket, so appends need no extra read, and an entry's
+// position (bucket, index) is a stable cursor: a page only reads the buckets it covers.
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class StatusHistoryBucketRepository {
+
+    // Fields on the current-status document
+    static final String BUCKET_FIELD = "historyBucket";
+    static final String BUCKET_COUNT_FIELD = "historyBucketCount";
+    static final String COUNT_FIELD = "historyCount";
+    static final String COMPLETE_FIELD = "historyComplete";
+
+    private final Firestore firestore;
+
+    @Value("${firestore.collection.status-history:ticket-status-history}")
+    private String collectionName;
+
+    // Entries per bucket document; at most ~1 KB each, well below the 1 MiB document limit
+    @Value("${status-history.bucket-size:200}")
+    private int bucketSize;
+
+    public record Position(long bucket, int index) {
+    }
+
+    public record PositionedStatus(Position position, StatusHistory status) {
+    }
+
+    // Appends within the caller's transaction; returns the fields to merge into the pointer
+    Map<String, Object> stageAppend(Transaction transaction, DocumentSnapshot pointer, StatusHistory statusHistory) {
+        long bucket = longField(pointer, BUCKET_FIELD);
+        long bucketCount = longField(pointer, BUCKET_COUNT_FIELD);
+        long total = longField(pointer, COUNT_FIELD);
+
+        if (bucketCount >= bucketSize) {
+            bucket++;
+            bucketCount = 0;
+        }
+
+        Map<String, Object> update = new HashMap<>();
+        update.put("ticketId", statusHistory.getTicketId());
+        update.put("bucket", bucket);
+        update.put("entries", FieldValue.arrayUnion(StatusHistoryCodec.encodeEntry(statusHistory)));
+        transaction.set(bucketRef(statusHistory.getTicketId(), bucket), update, SetOptions.merge());
+
+        return pointerFields(bucket, bucketCount + 1, total + 1);
+    }
+
+    // Writes a ticket's complete history (oldest first) into fresh buckets
+    Map<String, Object> stageRebuild(Transaction transaction, String ticketId, List<StatusHistory> history) {
+        long bucket = 0;
+        int from = 0;
+
+        do {
+            List<StatusHistory> chunk = history.subList(from, Math.min(from + bucketSize, history.size()));
+            List<Map<String, Object>> entries = new ArrayList<>(chunk.size());
+            for (StatusHistory statusHistory : chunk) {
+                entries.add(StatusHistoryCodec.encodeEntry(statusHistory));
+            }
+
+            transaction.set(bucketRef(ticketId, bucket), Map.of("ticketId", ticketId, "bucket", bucket, "entries", entries));
+
+            from += bucketSize;
+            if (from < history.size()) {
+                bucket++;
+            }
+        } while (from < history.size());
+
+        long lastBucketCount = history.size() - bucket * bucketSize;
+        return pointerFields(bucket, lastBucketCount, history.size());
+    }
+
+    // Newest first, strictly older than 'before' (or from the newest entry when null)
+    CompletableFuture<List<PositionedStatus>> findOlder(String ticketId, DocumentSnapshot pointer,
+                                                        Position before, int wanted) {
+        List<PositionedStatus> out = new ArrayList<>();
+        long startBucket = before != null ? before.bucket() : longField(pointer, BUCKET_FIELD);
+        int bound = before != null ? before.index() : Integer.MAX_VALUE;
+
+        return collectOlder(ticketId, startBucket, bound, wanted, out).thenApply(done -> out);
+    }
+
+    // Oldest first, strictly newer than 'after'
+    CompletableFuture<List<PositionedStatus>> findNewer(String ticketId, DocumentSnapshot pointer,
+                                                        Position after, int wanted) {
+        List<PositionedStatus> out = new ArrayList<>();
+        long lastBucket = longField(pointer, BUCKET_FIELD);
+
+        return collectNewer(ticketId, after.bucket(), after.index(), lastBucket, wanted, out).thenApply(done -> out);
+    }
+
+    // The history (oldest first) with the entry placed after every entry not newer than it,
+    // replacing a stored copy of the same status
+    static List<StatusHistory> withEntry(List<StatusHistory> history, StatusHistory statusHistory) {
+        List<StatusHistory> result = new ArrayList<>(history.size() + 1);
+        for (StatusHistory entry : history) {
+            if (!entry.getStatusId().equals(statusHistory.getStatusId())) {
+                result.add(entry);
+            }
+        }
+
+        int at = result.size();
+        while (at > 0 && result.get(at - 1).getUpdatedAt().isAfter(statusHistory.getUpdatedAt())) {
+            at--;
+        }
+        result.add(at, statusHistory);
+        return result;
+    }
+
+    static boolean isComplete(DocumentSnapshot pointer) {
+        return pointer.exists() && Boolean.TRUE.equals(pointer.getBoolean(COMPLETE_FIELD));
+    }
+
+    static long totalCount(DocumentSnapshot pointer) {
+        return longField(pointer, COUNT_FIELD);
+    }
+
+    // Buckets are fetched in groups sized to the page, walking from the newest bucket down
+    private CompletableFuture<Void> collectOlder(String ticketId, long bucket, int beforeIndex,
+                                                 int wanted, List<PositionedStatus> out) {
+        if (bucket < 0 || out.size() >= wanted) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long lowest = Math.max(0, bucket - bucketsPerRead(wanted - out.size()) + 1);
+        List<DocumentReference> refs = new ArrayList<>();
+        for (long b = bucket; b >= lowest; b--) {
+            refs.add(bucketRef(ticketId, b));
+        }
+
+        return FirestoreFutures.toCompletableFuture(firestore.getAll(refs.toArray(new DocumentReference[0])),
+                        "Failed to find status history")
+                .thenCompose(snapshots -> {
+                    for (int i = 0; i < snapshots.size() && out.size() < wanted; i++) {
+                        long b = bucket - i;
+                        List<Map<String, Object>> entries = entries(snapshots.get(i));
+                        int upper = b == bucket ? Math.min(beforeIndex, entries.size()) : entries.size();
+
+                        for (int index = upper - 1; index >= 0 && out.size() < wanted; index--) {
+                            out.add(positioned(ticketId, b, index, entries.get(index)));
+                        }
+                    }
+                    return collectOlder(ticketId, lowest - 1, Integer.MAX_VALUE, wanted, out);
+                });
+    }
+
+    private CompletableFuture<Void> collectNewer(String ticketId, long bucket, int afterIndex, long lastBucket,
+                                                 int wanted, List<PositionedStatus> out) {
+        if (bucket > lastBucket || out.size() >= wanted) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long highest = Math.min(lastBucket, bucket + bucketsPerRead(wanted - out.size()) - 1);
+        List<DocumentReference> refs = new ArrayList<>();
+        for (long b = bucket; b <= highest; b++) {
+            refs.add(bucketRef(ticketId, b));
+        }
+
+        return FirestoreFutures.toCompletableFuture(firestore.getAll(refs.toArray(new DocumentReference[0])),
+                        "Failed to find status history")
+                .thenCompose(snapshots -> {
+                    for (int i = 0; i < snapshots.size() && out.size() < wanted; i++) {
+                        long b = bucket + i;
+                        List<Map<String, Object>> entries = entries(snapshots.get(i));
+                        int lower = b == bucket ? afterIndex + 1 : 0;
+
+                        for (int index = lower; index < entries.size() && out.size() < wanted; index++) {
+                            out.add(positioned(ticketId, b, index, entries.get(index)));
+                        }
+                    }
+                    return collectNewer(ticketId, highest + 1, -1, lastBucket, wanted, out);
+                });
+    }
+
+    // Enough buckets to fill the page even when the first one is nearly exhausted
+    private int bucketsPerRead(int remaining) {
+        return remaining / bucketSize + 2;
+    }
+
+    private PositionedStatus positioned(String ticketId, long bucket, int index, Map<String, Object> entry) {
+        return new PositionedStatus(new Position(bucket, index), StatusHistoryCodec.decodeEntry(ticketId, entry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> entries(DocumentSnapshot bucket) {
+        Object entries = bucket.exists() ? bucket.get("entries") : null;
+        return entries instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+    }
+
+    private Map<String, Object> pointerFields(long bucket, long bucketCount, long total) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(BUCKET_FIELD, bucket);
+        fields.put(BUCKET_COUNT_FIELD, bucketCount);
+        fields.put(COUNT_FIELD, total);
+        fields.put(COMPLETE_FIELD, true);
+        return fields;
+    }
+
+    private static long longField(DocumentSnapshot pointer, String field) {
+        Long value = pointer.exists() ? pointer.getLong(field) : null;
+        return value != null ? value : 0;
+    }
+
+    private DocumentReference bucketRef(String ticketId, long bucket) {
+        return firestore.collection(collectionName)
+                .document(DocumentKeys.storageKey(ticketId) + "-" + String.format("%06d", bucket));
+    }
+}
@@ -0,0 +1,99 @@
+package com.helpdesk.status.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.util.TimeConversions;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+// Maps status updates to and from Firestore documents and history bucket entries. Each field is
+// read from the snapshot once, statuses resolve through a prebuilt table, timestamps convert from
+// the stored Timestamp's epoch seconds instead of going through getDate, and write maps are sized
+// up front for every field.
+final class StatusHistoryCodec {
+
+    // Holds all 6 status fields (5 in a bucket entry) under the default load factor without resizing
+    private static final int MAP_CAPACITY = 8;
+
+    private static final Map<String, TicketStatus> STATUSES = lookupTable();
+
+    private StatusHistoryCodec() {
+    }
+
+    // The document ID is a storage key; the public status ID lives in the statusId field.
+    // Projected reads leave out fields, so every field is optional here.
+    static StatusHistory decode(DocumentSnapshot document) {
+        String statusId = document.getString("statusId");
+
+        return StatusHistory.builder()
+                .statusId(statusId != null ? statusId : document.getId())
+                .ticketId(document.getString("ticketId"))
+                .status(status(document.getString("status")))
+                .updatedBy(document.getString("updatedBy"))
+                .updatedAt(TimeConversions.toLocalDateTime(document.getTimestamp("updatedAt")))
+                .comments(document.getString("comments"))
+                .build();
+    }
+
+    static Map<String, Object> encode(StatusHistory statusHistory) {
+        Map<String, Object> map = new HashMap<>(MAP_CAPACITY);
+        map.put("statusId", statusHistory.getStatusId());
+        map.put("ticketId", statusHistory.getTicketId());
+        map.put("status", statusHistory.getStatus().name());
+        map.put("updatedBy", statusHistory.getUpdatedBy());
+        map.put("updatedAt", TimeConversions.toDate(statusHistory.getUpdatedAt()));
+        map.put("comments", statusHistory.getComments());
+        return map;
+    }
+
+    // Bucket entries leave out the ticket ID, which the bucket document already implies
+    static Map<String, Object> encodeEntry(StatusHistory statusHistory) {
+        Map<String, Object> entry = new HashMap<>(MAP_CAPACITY);
+        entry.put("statusId", statusHistory.getStatusId());
+        entry.put("status", statusHistory.getStatus().name());
+        entry.put("updatedBy", statusHistory.getUpdatedBy());
+        entry.put("updatedAt", TimeConversions.toDate(statusHistory.getUpdatedAt()));
+        entry.put("comments", statusHistory.getComments());
+        return entry;
+    }
+
+    static StatusHistory decodeEntry(String ticketId, Map<String, Object> entry) {
+        // Nested timestamps come back as Timestamp rather than Date
+        Object updatedAt = entry.get("updatedAt");
+
+        return StatusHistory.builder()
+                .statusId((String) entry.get("statusId"))
+                .ticketId(ticketId)
+                .status(status((String) entry.get("status")))
+                .updatedBy((String) entry.get("updatedBy"))
+                .updatedAt(updatedAt instanceof Timestamp timestamp
+                        ? TimeConversions.toLocalDateTime(timestamp)
+                        : TimeConversions.toLocalDateTime((Date) updatedAt))
+                .comments((String) entry.get("comments"))
+                .build();
+    }
+
+    static TicketStatus status(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        TicketStatus status = STATUSES.get(name);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown ticket status: " + name);
+        }
+        return status;
+    }
+
+    private static Map<String, TicketStatus> lookupTable() {
+        Map<String, TicketStatus> table = new HashMap<>();
+        for (TicketStatus status : TicketStatus.values()) {
+            table.put(status.name(), status);
+        }
+        return Map.copyOf(table);
+    }
+}
@@ -0,0 +1,10 @@
+package com.helpdesk.status.repository;
+
+import com.helpdesk.status.model.StatusHistory;
+
+import java.util.List;
+
+// Newest first; a null cursor means there is nothing further in that direction
+public record StatusHistoryPage(List<StatusHistory> items, String beforeCursor, String afterCursor,
+                                long totalUpdates) {
+}
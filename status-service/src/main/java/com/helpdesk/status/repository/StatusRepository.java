@@ -1,234 +1,783 @@
 package com.helpdesk.status.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiStreamObserver;
 import com.google.cloud.firestore.*;
+import com.helpdesk.status.exception.InvalidRequestException;
 import com.helpdesk.status.exception.StatusServiceException;
 import com.helpdesk.status.model.StatusHistory;
 import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.repository.StatusHistoryBucketRepository.PositionedStatus;
+import com.helpdesk.status.util.FieldSelection;
+import com.helpdesk.status.util.SingleFlight;
+import com.helpdesk.status.util.TimeConversions;
+import com.helpdesk.status.util.WriteGenerations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class StatusRepository {
 
+    private static final int GET_ALL_CHUNK_SIZE = 100;
+
+    // Properties accepted by ?fields=
+    public static final Set<String> SELECTABLE_FIELDS = Set.of("statusId", "ticketId", "status", "updatedBy",
+            "updatedAt", "comments");
+
     private final Firestore firestore;
+    private final Cache<String, StatusHistory> currentStatusCache;
+    private final SingleFlight<String, Optional<StatusHistory>> currentStatusReads;
+    private final WriteGenerations writeGenerations = new WriteGenerations();
+    private final StatusRollupRepository statusRollupRepository;
+    private final StatusHistoryBucketRepository statusHistoryBucketRepository;
 
     @Value("${firestore.collection.status}")
     private String collectionName;
 
-    public StatusHistory save(StatusHistory statusHistory) {
+    // One document per ticket mirroring its latest status update, so lookups are point reads
+    @Value("${firestore.collection.current-status:ticket-current-status}")
+    private String currentStatusCollectionName;
+
+    // While true, tickets without a current-status document fall back to the history query
+    @Value("${current-status.query-fallback:true}")
+    private boolean currentStatusQueryFallback;
+
+    // Upper bound on history queries in flight for one batch lookup
+    @Value("${current-status.batch.fallback-concurrency:16}")
+    private int fallbackConcurrency;
+
+    // One pass over a projected stream of the day's events: only ticketId, status and updatedAt
+    // are transferred, and documents are folded into the aggregator as they arrive.
+    public Map<TicketStatus, Long> getStatusSummaryByDate(LocalDate date) {
         try {
-            log.info("Saving status update for ticket: {}", statusHistory.getTicketId());
+            log.info("Getting status summary for date: {}", date);
 
-            DocumentReference docRef = firestore.collection(collectionName)
-                    .document(statusHistory.getStatusId());
+            LocalDateTime startOfDay = date.atStartOfDay();
+            LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
 
-            ApiFuture<WriteResult> result = docRef.set(convertToMap(statusHistory));
+            Query query = firestore.collection(collectionName)
+                    .whereGreaterThanOrEqualTo("updatedAt", TimeConversions.toDate(startOfDay))
+                    .whereLessThan("updatedAt", TimeConversions.toDate(endOfDay))
+                    .select("ticketId", "status", "updatedAt");
 
-            WriteResult writeResult = result.get();
-            log.info("Status saved successfully at: {}", writeResult.getUpdateTime());
+            DailyStatusAggregator aggregator = new DailyStatusAggregator();
+            streamProjected(query, document -> aggregator.accept(document.getString("ticketId"),
+                    StatusHistoryCodec.status(document.getString("status")),
+                    document.getDate("updatedAt").getTime()));
+
+            Map<TicketStatus, Long> summary = aggregator.summary();
+            log.info("Status summary for {} from {} event(s): {}", date, aggregator.eventCount(), summary);
+            return summary;
 
-            return statusHistory;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error saving status: {}", e.getMessage(), e);
+            log.error("Error getting status summary: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to save status", e);
+            throw new StatusServiceException("Failed to get status summary", e);
         }
     }
 
-    public Optional<StatusHistory> findById(String statusId) {
+
+    // Raw event counts per status in [from, to), for ranges that predate the status rollups
+    public long[] countStatusEventsBetween(Instant from, Instant to) {
         try {
-            log.info("Finding status by ID: {}", statusId);
+            log.info("Counting status events between {} and {}", from, to);
 
-            DocumentReference docRef = firestore.collection(collectionName).document(statusId);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+            Query query = firestore.collection(collectionName)
+                    .whereGreaterThanOrEqualTo("updatedAt", Date.from(from))
+                    .whereLessThan("updatedAt", Date.from(to))
+                    .select("status");
 
-            if (document.exists()) {
-                StatusHistory status = documentToStatusHistory(document);
-                log.info("Status found: {}", statusId);
-                return Optional.of(status);
-            }
+            long[] counts = new long[TicketStatus.values().length];
+            streamProjected(query, document -> counts[StatusHistoryCodec.status(document.getString("status")).ordinal()]++);
 
-            log.warn("Status not found: {}", statusId);
-            return Optional.empty();
+            return counts;
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding status: {}", e.getMessage(), e);
+            log.error("Error counting status events: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to find status", e);
+            throw new StatusServiceException("Failed to count status events", e);
         }
     }
-    public List<StatusHistory> findByTicketId(String ticketId) {
+
+
+    // Reads the whole collection in keyset-ordered chunks, fetching the next chunk while the
+    // current one is consumed; at most two chunks are held in memory at any time.
+    public long streamAll(int chunkSize, Consumer<StatusHistory> consumer) {
         try {
-            log.info("Finding status history for ticket: {}", ticketId);
+            log.info("Streaming all status updates in chunks of {}", chunkSize);
+
+            Query query = firestore.collection(collectionName)
+                    .orderBy(FieldPath.documentId())
+                    .limit(chunkSize);
+
+            List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+            long count = 0;
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .whereEqualTo("ticketId", ticketId)
-                    .orderBy("updatedAt", Query.Direction.DESCENDING)
-                    .get();
+            while (!documents.isEmpty()) {
+                ApiFuture<QuerySnapshot> next = documents.size() == chunkSize
+                        ? query.startAfter(documents.get(documents.size() - 1)).get()
+                        : null;
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<StatusHistory> statusHistory = new ArrayList<>();
+                for (QueryDocumentSnapshot document : documents) {
+                    consumer.accept(StatusHistoryCodec.decode(document));
+                }
+                count += documents.size();
 
-            for (QueryDocumentSnapshot document : documents) {
-                statusHistory.add(documentToStatusHistory(document));
+                documents = next != null ? next.get().getDocuments() : List.of();
             }
 
-            log.info("Found {} status updates for ticket: {}", statusHistory.size(), ticketId);
-            return statusHistory;
+            log.info("Streamed {} status updates", count);
+            return count;
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding status history: {}", e.getMessage(), e);
+            log.error("Error streaming status updates: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to find status history", e);
+            throw new StatusServiceException("Failed to stream status updates", e);
         }
     }
 
-    public Optional<StatusHistory> findCurrentStatusByTicketId(String ticketId) {
-        try {
-            log.info("Finding current status for ticket: {}", ticketId);
+    // Keyset pagination on (updatedAt, document ID), newest first
+    private Query pageQuery(int limit, String cursor) {
+        Query query = firestore.collection(collectionName)
+                .orderBy("updatedAt", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                .limit(limit + 1);
+
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor position = decodeCursor(cursor);
+            query = query.startAfter(new Date(position.updatedAt()), position.documentId());
+        }
+        return query;
+    }
+
+    private CursorPage<StatusHistory> toPage(List<QueryDocumentSnapshot> documents, int limit) {
+        List<StatusHistory> statusUpdates = new ArrayList<>();
+
+        for (QueryDocumentSnapshot document : documents.subList(0, Math.min(limit, documents.size()))) {
+            statusUpdates.add(StatusHistoryCodec.decode(document));
+        }
+
+        String nextCursor = null;
+        if (documents.size() > limit) {
+            QueryDocumentSnapshot last = documents.get(limit - 1);
+            nextCursor = encodeCursor(last.getDate("updatedAt").getTime(), last.getId());
+        }
+
+        log.info("Found {} status updates in page (more: {})", statusUpdates.size(), nextCursor != null);
+        return new CursorPage<>(statusUpdates, nextCursor);
+    }
+
+
+    // Non-blocking variants: the request thread is released while the Firestore call is in flight
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .whereEqualTo("ticketId", ticketId)
-                    .orderBy("updatedAt", Query.Direction.DESCENDING)
-                    .limit(1)
-                    .get();
+    public CompletableFuture<StatusHistory> saveAsync(StatusHistory statusHistory) {
+        log.info("Saving status update asynchronously for ticket: {}", statusHistory.getTicketId());
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        return FirestoreFutures.toCompletableFuture(saveInTransaction(statusHistory), "Failed to save status")
+                .thenApply(saved -> {
+                    log.info("Status saved successfully: {}", saved.getStatusId());
+                    cacheWritten(saved);
+                    return saved;
+                });
+    }
+
+    public CompletableFuture<Optional<StatusHistory>> findCurrentStatusByTicketIdAsync(String ticketId) {
+        StatusHistory cached = currentStatusCache.getIfPresent(ticketId);
+        if (cached != null) {
+            log.debug("Current status served from cache for ticket: {}", ticketId);
+            return CompletableFuture.completedFuture(Optional.of(cached.toBuilder().build()));
+        }
+
+        // Every caller gets its own copy, since the read may be shared with concurrent callers
+        return currentStatusReads.execute(ticketId, () -> readCurrentStatusAsync(ticketId))
+                .thenApply(found -> found.map(status -> status.toBuilder().build()));
+    }
 
-            if (!documents.isEmpty()) {
-                StatusHistory status = documentToStatusHistory(documents.get(0));
-                log.info("Current status found for ticket {}: {}", ticketId, status.getStatus());
-                return Optional.of(status);
+    private CompletableFuture<Optional<StatusHistory>> readCurrentStatusAsync(String ticketId) {
+        log.info("Finding current status asynchronously for ticket: {}", ticketId);
+
+        long generation = writeGenerations.current(ticketId);
+        return FirestoreFutures.toCompletableFuture(currentStatusRef(ticketId).get(), "Failed to find current status")
+                .thenCompose(current -> {
+                    if (current.exists()) {
+                        StatusHistory status = StatusHistoryCodec.decode(current);
+                        cacheRead(status, generation);
+                        return CompletableFuture.completedFuture(Optional.of(status));
+                    }
+
+                    if (!currentStatusQueryFallback) {
+                        log.warn("No status found for ticket: {}", ticketId);
+                        return CompletableFuture.completedFuture(Optional.<StatusHistory>empty());
+                    }
+
+                    return FirestoreFutures.toCompletableFuture(latestStatusQuery(ticketId).get(), "Failed to find current status")
+                            .thenApply(snapshot -> {
+                                if (snapshot.isEmpty()) {
+                                    log.warn("No status found for ticket: {}", ticketId);
+                                    return Optional.<StatusHistory>empty();
+                                }
+
+                                StatusHistory status = StatusHistoryCodec.decode(snapshot.getDocuments().get(0));
+                                backfillCurrentStatus(status);
+                                cacheRead(status, generation);
+                                return Optional.of(status);
+                            });
+                });
+    }
+
+    // Cache hits are answered locally; the misses are read with one getAll per chunk, and all
+    // chunks are in flight at once. Tickets without any status are absent from the result.
+    public CompletableFuture<Map<String, StatusHistory>> findCurrentStatusesByTicketIdsAsync(Collection<String> ticketIds) {
+        log.info("Finding current status asynchronously for {} ticket(s)", ticketIds.size());
+
+        Map<String, StatusHistory> found = new ConcurrentHashMap<>();
+        List<String> misses = new ArrayList<>();
+        Map<String, Long> generations = new HashMap<>();
+
+        for (String ticketId : new LinkedHashSet<>(ticketIds)) {
+            StatusHistory cached = currentStatusCache.getIfPresent(ticketId);
+            if (cached != null) {
+                found.put(ticketId, cached.toBuilder().build());
+            } else {
+                misses.add(ticketId);
+                generations.put(ticketId, writeGenerations.current(ticketId));
             }
+        }
 
-            log.warn("No status found for ticket: {}", ticketId);
-            return Optional.empty();
+        List<CompletableFuture<Void>> reads = new ArrayList<>();
+        for (int from = 0; from < misses.size(); from += GET_ALL_CHUNK_SIZE) {
+            List<String> chunk = misses.subList(from, Math.min(from + GET_ALL_CHUNK_SIZE, misses.size()));
+            DocumentReference[] refs = chunk.stream().map(this::currentStatusRef).toArray(DocumentReference[]::new);
+
+            reads.add(FirestoreFutures.toCompletableFuture(firestore.getAll(refs), "Failed to find current status")
+                    .thenAccept(snapshots -> {
+                        for (DocumentSnapshot snapshot : snapshots) {
+                            if (snapshot.exists()) {
+                                StatusHistory status = StatusHistoryCodec.decode(snapshot);
+                                Long generation = generations.get(status.getTicketId());
+                                if (generation != null) {
+                                    cacheRead(status, generation);
+                                }
+                                found.put(status.getTicketId(), status);
+                            }
+                        }
+                    }));
+        }
 
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding current status: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to find current status", e);
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+                .thenCompose(done -> {
+                    if (!currentStatusQueryFallback) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    List<String> unresolved = misses.stream().filter(id -> !found.containsKey(id)).toList();
+                    return findLatestInWaves(unresolved, 0, found);
+                })
+                .thenApply(done -> {
+                    Map<String, StatusHistory> result = new LinkedHashMap<>();
+                    for (String ticketId : ticketIds) {
+                        StatusHistory status = found.get(ticketId);
+                        if (status != null) {
+                            result.put(ticketId, status);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    // One page of a ticket's history, newest first. 'before' pages towards older entries and
+    // 'after' towards newer ones; cursors from either storage layout are accepted.
+    public CompletableFuture<StatusHistoryPage> findHistoryPageAsync(String ticketId, int limit,
+                                                                   String before, String after) {
+        log.info("Finding status history page asynchronously for ticket: {} (limit: {})", ticketId, limit);
+
+        HistoryCursor beforeCursor = before != null && !before.isBlank() ? decodeHistoryCursor(before) : null;
+        HistoryCursor afterCursor = after != null && !after.isBlank() ? decodeHistoryCursor(after) : null;
+        if (beforeCursor != null && afterCursor != null) {
+            throw new InvalidRequestException("Only one of 'before' and 'after' may be given");
         }
+
+        return FirestoreFutures.toCompletableFuture(currentStatusRef(ticketId).get(), "Failed to find status history")
+                .thenCompose(pointer -> {
+                    HistoryCursor cursor = beforeCursor != null ? beforeCursor : afterCursor;
+                    boolean bucketed = cursor != null
+                            ? cursor.bucketed()
+                            : StatusHistoryBucketRepository.isComplete(pointer);
+
+                    return bucketed
+                            ? findBucketedHistoryPage(ticketId, pointer, limit, beforeCursor, afterCursor)
+                            : findFlatHistoryPage(ticketId, limit, beforeCursor, afterCursor);
+                });
     }
 
-    public Map<TicketStatus, Long> getStatusSummaryByDate(LocalDate date) {
-        try {
-            log.info("Getting status summary for date: {}", date);
+    private CompletableFuture<StatusHistoryPage> findBucketedHistoryPage(String ticketId, DocumentSnapshot pointer,
+                                                                         int limit, HistoryCursor before,
+                                                                         HistoryCursor after) {
+        long total = StatusHistoryBucketRepository.totalCount(pointer);
+
+        if (after != null) {
+            return statusHistoryBucketRepository.findNewer(ticketId, pointer, after.position(), limit + 1)
+                    .thenApply(found -> {
+                        List<PositionedStatus> page = new ArrayList<>(found.subList(0, Math.min(limit, found.size())));
+                        Collections.reverse(page);
+                        return toBucketedPage(page, true, found.size() > limit, total);
+                    });
+        }
 
-            LocalDateTime startOfDay = date.atStartOfDay();
-            LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
+        StatusHistoryBucketRepository.Position from = before != null ? before.position() : null;
+        return statusHistoryBucketRepository.findOlder(ticketId, pointer, from, limit + 1)
+                .thenApply(found -> toBucketedPage(found.subList(0, Math.min(limit, found.size())),
+                        found.size() > limit, before != null, total));
+    }
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .whereGreaterThanOrEqualTo("updatedAt", localDateTimeToDate(startOfDay))
-                    .whereLessThan("updatedAt", localDateTimeToDate(endOfDay))
-                    .get();
+    private StatusHistoryPage toBucketedPage(List<PositionedStatus> page, boolean hasOlder, boolean hasNewer, long total) {
+        List<StatusHistory> items = page.stream().map(PositionedStatus::status).toList();
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        String beforeCursor = hasOlder && !page.isEmpty()
+                ? encodeBucketCursor(page.get(page.size() - 1).position())
+                : null;
+        String afterCursor = hasNewer && !page.isEmpty()
+                ? encodeBucketCursor(page.get(0).position())
+                : null;
 
-            Map<TicketStatus, Long> summary = new HashMap<>();
-            for (TicketStatus status : TicketStatus.values()) {
-                summary.put(status, 0L);
+        log.info("Found {} status updates in history page", items.size());
+        return new StatusHistoryPage(items, beforeCursor, afterCursor, total);
+    }
+
+    // History of tickets that predate the buckets, read from the per-update documents
+    private CompletableFuture<StatusHistoryPage> findFlatHistoryPage(String ticketId, int limit,
+                                                                     HistoryCursor before, HistoryCursor after) {
+        Query ticketHistory = firestore.collection(collectionName).whereEqualTo("ticketId", ticketId);
+
+        boolean newer = after != null;
+        Query.Direction direction = newer ? Query.Direction.ASCENDING : Query.Direction.DESCENDING;
+        Query query = ticketHistory
+                .orderBy("updatedAt", direction)
+                .orderBy(FieldPath.documentId(), direction)
+                .limit(limit + 1);
+
+        HistoryCursor cursor = newer ? after : before;
+        if (cursor != null) {
+            query = query.startAfter(new Date(cursor.flat().updatedAt()), cursor.flat().documentId());
+        }
+
+        CompletableFuture<QuerySnapshot> pageFuture =
+                FirestoreFutures.toCompletableFuture(query.get(), "Failed to find status history");
+        CompletableFuture<AggregateQuerySnapshot> countFuture =
+                FirestoreFutures.toCompletableFuture(ticketHistory.count().get(), "Failed to count status history");
+
+        return pageFuture.thenCombine(countFuture, (snapshot, count) -> {
+            List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+            boolean more = documents.size() > limit;
+
+            List<QueryDocumentSnapshot> page = new ArrayList<>(documents.subList(0, Math.min(limit, documents.size())));
+            if (newer) {
+                Collections.reverse(page);
             }
 
-            Map<String, TicketStatus> latestStatusPerTicket = new HashMap<>();
-
-            for (QueryDocumentSnapshot document : documents) {
-                StatusHistory status = documentToStatusHistory(document);
-                String ticketId = status.getTicketId();
-
-                if (!latestStatusPerTicket.containsKey(ticketId) ||
-                        status.getUpdatedAt().isAfter(
-                                documents.stream()
-                                        .filter(d -> d.getString("ticketId").equals(ticketId))
-                                        .map(this::documentToStatusHistory)
-                                        .findFirst()
-                                        .get()
-                                        .getUpdatedAt()
-                        )) {
-                    latestStatusPerTicket.put(ticketId, status.getStatus());
+            boolean hasOlder = newer || more;
+            boolean hasNewer = newer ? more : before != null;
+
+            List<StatusHistory> items = page.stream().map(StatusHistoryCodec::decode).toList();
+            String beforeCursor = hasOlder && !page.isEmpty() ? encodeFlatCursor(page.get(page.size() - 1)) : null;
+            String afterCursor = hasNewer && !page.isEmpty() ? encodeFlatCursor(page.get(0)) : null;
+
+            log.info("Found {} status updates in flat history page", items.size());
+            return new StatusHistoryPage(items, beforeCursor, afterCursor, count.getCount());
+        });
+    }
+
+    // Status updates matching the filters, counted server-side; null filters are not applied
+    public CompletableFuture<Long> countUpdatesAsync(TicketStatus status, Instant from, Instant to) {
+        log.info("Counting status updates asynchronously (status: {}, from: {}, to: {})", status, from, to);
+
+        Query query = firestore.collection(collectionName);
+        if (status != null) {
+            query = query.whereEqualTo("status", status.name());
+        }
+        if (from != null) {
+            query = query.whereGreaterThanOrEqualTo("updatedAt", Date.from(from));
+        }
+        if (to != null) {
+            query = query.whereLessThan("updatedAt", Date.from(to));
+        }
+
+        return FirestoreFutures.toCompletableFuture(query.count().get(), "Failed to count status updates")
+                .thenApply(AggregateQuerySnapshot::getCount);
+    }
+
+    // Tickets currently in each status: one aggregation per status over the current-status
+    // documents, all in flight at once
+    public CompletableFuture<Map<TicketStatus, Long>> countCurrentByStatusAsync() {
+        log.info("Counting tickets by current status asynchronously");
+
+        Map<TicketStatus, CompletableFuture<Long>> counts = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            Query query = firestore.collection(currentStatusCollectionName).whereEqualTo("status", status.name());
+            counts.put(status, FirestoreFutures.toCompletableFuture(query.count().get(), "Failed to count tickets by status")
+                    .thenApply(AggregateQuerySnapshot::getCount));
+        }
+
+        return CompletableFuture.allOf(counts.values().toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<TicketStatus, Long> result = new EnumMap<>(TicketStatus.class);
+                    counts.forEach((status, count) -> result.put(status, count.join()));
+                    return result;
+                });
+    }
+
+    public CompletableFuture<CursorPage<StatusHistory>> findPageAsync(int limit, String cursor, FieldSelection fields) {
+        log.info("Finding page of status updates asynchronously (limit: {})", limit);
+
+        Query query = pageQuery(limit, cursor);
+        if (!fields.isAll()) {
+            // updatedAt is always read because the next cursor is built from it
+            Set<String> projected = new LinkedHashSet<>(fields.fields());
+            projected.add("statusId");
+            projected.add("updatedAt");
+            query = query.select(projected.toArray(new String[0]));
+        }
+
+        return FirestoreFutures.toCompletableFuture(query.get(), "Failed to find status updates")
+                .thenApply(snapshot -> toPage(snapshot.getDocuments(), limit));
+    }
+
+
+    // Copies a ticket's flat history into history buckets so its reads can use them; a ticket
+    // that is already bucketed is left alone. Returns whether anything was written.
+    public boolean rebuildHistoryBuckets(String ticketId) {
+        try {
+            DocumentReference currentRef = currentStatusRef(ticketId);
+            Query history = historyQuery(ticketId);
+
+            return firestore.runTransaction(transaction -> {
+                DocumentSnapshot current = transaction.get(currentRef).get();
+                if (StatusHistoryBucketRepository.isComplete(current)) {
+                    return false;
                 }
-            }
 
-            for (TicketStatus status : latestStatusPerTicket.values()) {
-                summary.put(status, summary.get(status) + 1);
-            }
+                List<StatusHistory> entries = new ArrayList<>();
+                for (QueryDocumentSnapshot document : transaction.get(history).get().getDocuments()) {
+                    entries.add(StatusHistoryCodec.decode(document));
+                }
+                if (entries.isEmpty()) {
+                    return false;
+                }
 
-            log.info("Status summary for {}: {}", date, summary);
-            return summary;
+                Map<String, Object> pointer = new HashMap<>();
+                if (!current.exists()) {
+                    pointer.putAll(StatusHistoryCodec.encode(entries.get(entries.size() - 1)));
+                }
+                pointer.putAll(statusHistoryBucketRepository.stageRebuild(transaction, ticketId, entries));
+                transaction.set(currentRef, pointer, SetOptions.merge());
+                return true;
+            }).get();
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error getting status summary: {}", e.getMessage(), e);
+            log.error("Error rebuilding status history buckets: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to get status summary", e);
+            throw new StatusServiceException("Failed to rebuild status history buckets", e);
         }
     }
 
 
-    public List<StatusHistory> findAll() {
+    // Moves documents stored under their plain status ID to the hashed storage key. Each chunk is
+    // copied and deleted in one atomic batch, so a re-run after a failure simply continues.
+    public long migrateStorageKeys(int chunkSize) {
         try {
-            log.info("Finding all status updates");
-
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .orderBy("updatedAt", Query.Direction.DESCENDING)
-                    .get();
+            // Every moved document costs two writes and a batch is capped at 500
+            int limit = Math.min(chunkSize, 250);
+            log.info("Migrating status documents to hashed storage keys in chunks of {}", limit);
+
+            Query query = firestore.collection(collectionName)
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+
+            List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+            long migrated = 0;
+
+            while (!documents.isEmpty()) {
+                WriteBatch batch = firestore.batch();
+                int moves = 0;
+
+                for (QueryDocumentSnapshot document : documents) {
+                    String statusId = document.getString("statusId");
+                    if (statusId == null || DocumentKeys.isStorageKey(document.getId(), statusId)) {
+                        continue;
+                    }
+
+                    batch.set(documentRef(statusId), document.getData());
+                    batch.delete(document.getReference());
+                    moves++;
+                }
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<StatusHistory> statusUpdates = new ArrayList<>();
+                if (moves > 0) {
+                    batch.commit().get();
+                    migrated += moves;
+                }
 
-            for (QueryDocumentSnapshot document : documents) {
-                statusUpdates.add(documentToStatusHistory(document));
+                documents = documents.size() == limit
+                        ? query.startAfter(documents.get(documents.size() - 1)).get().get().getDocuments()
+                        : List.of();
             }
 
-            log.info("Found {} total status updates", statusUpdates.size());
-            return statusUpdates;
+            log.info("Migrated {} status document(s) to hashed storage keys", migrated);
+            return migrated;
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding all status updates: {}", e.getMessage(), e);
+            log.error("Error migrating status storage keys: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new StatusServiceException("Failed to find all status updates", e);
+            throw new StatusServiceException("Failed to migrate status storage keys", e);
         }
     }
 
 
-    private StatusHistory documentToStatusHistory(DocumentSnapshot document) {
-        return StatusHistory.builder()
-                .statusId(document.getId())
-                .ticketId(document.getString("ticketId"))
-                .status(TicketStatus.valueOf(document.getString("status")))
-                .updatedBy(document.getString("updatedBy"))
-                .updatedAt(dateToLocalDateTime(document.getDate("updatedAt")))
-                .comments(document.getString("comments"))
-                .build();
+    // Documents are handed to the consumer as they arrive; the observer callbacks run one at a
+    // time, so the consumer needs no synchronization of its own
+    private void streamProjected(Query query, Consumer<DocumentSnapshot> consumer)
+            throws InterruptedException, ExecutionException {
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        query.stream(new ApiStreamObserver<>() {
+            @Override
+            public void onNext(DocumentSnapshot document) {
+                if (completed.isDone()) {
+                    return;
+                }
+                try {
+                    consumer.accept(document);
+                } catch (RuntimeException e) {
+                    completed.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+
+        completed.get();
+    }
+
+    // The status document, its rollup increments, the history bucket entry and the ticket's
+    // current-status document commit atomically. The current-status document is only replaced
+    // by a status that is not older, so concurrent updates for one ticket cannot leave a stale
+    // status behind. A late (older) status is not appended to the buckets, which must stay in
+    // time order; the buckets are rebuilt from the flat history in the same transaction instead.
+    private ApiFuture<StatusHistory> saveInTransaction(StatusHistory statusHistory) {
+        DocumentReference currentRef = currentStatusRef(statusHistory.getTicketId());
+        Map<String, Object> data = StatusHistoryCodec.encode(statusHistory);
+
+        return firestore.runTransaction(transaction -> {
+            DocumentSnapshot current = transaction.get(currentRef).get();
+
+            // History buckets only serve reads for tickets whose every update went into them;
+            // older tickets keep using the flat history until they are rebuilt
+            boolean bucketed = current.exists()
+                    ? StatusHistoryBucketRepository.isComplete(current)
+                    : transaction.get(latestStatusQuery(statusHistory.getTicketId())).get().isEmpty();
+
+            Date currentUpdatedAt = current.exists() ? current.getDate("updatedAt") : null;
+            boolean latest = currentUpdatedAt == null || !currentUpdatedAt.after((Date) data.get("updatedAt"));
+
+            // Transactions read before any write, so the history for a rebuild is read here
+            List<StatusHistory> history = null;
+            if (bucketed && !latest) {
+                List<StatusHistory> stored = new ArrayList<>();
+                for (QueryDocumentSnapshot document : transaction.get(historyQuery(statusHistory.getTicketId())).get().getDocuments()) {
+                    stored.add(StatusHistoryCodec.decode(document));
+                }
+                history = StatusHistoryBucketRepository.withEntry(stored, statusHistory);
+            }
+
+            transaction.set(documentRef(statusHistory.getStatusId()), data);
+            statusRollupRepository.stageIncrements(transaction, statusHistory);
+
+            Map<String, Object> pointer = new HashMap<>();
+            if (latest) {
+                pointer.putAll(data);
+            }
+            if (bucketed) {
+                pointer.putAll(latest
+                        ? statusHistoryBucketRepository.stageAppend(transaction, current, statusHistory)
+                        : statusHistoryBucketRepository.stageRebuild(transaction, statusHistory.getTicketId(), history));
+            }
+            if (!pointer.isEmpty()) {
+                transaction.set(currentRef, pointer, SetOptions.merge());
+            }
+            return statusHistory;
+        });
     }
 
-    private Map<String, Object> convertToMap(StatusHistory statusHistory) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("statusId", statusHistory.getStatusId());
-        map.put("ticketId", statusHistory.getTicketId());
-        map.put("status", statusHistory.getStatus().name());
-        map.put("updatedBy", statusHistory.getUpdatedBy());
-        map.put("updatedAt", localDateTimeToDate(statusHistory.getUpdatedAt()));
-        map.put("comments", statusHistory.getComments());
-        return map;
+    // A ticket's flat history, oldest first
+    private Query historyQuery(String ticketId) {
+        return firestore.collection(collectionName)
+                .whereEqualTo("ticketId", ticketId)
+                .orderBy("updatedAt")
+                .orderBy(FieldPath.documentId());
     }
 
-    private Date localDateTimeToDate(LocalDateTime localDateTime) {
-        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    // Tickets last updated before current-status documents existed get one on first lookup;
+    // create() never overwrites a document written by a concurrent update
+    private void backfillCurrentStatus(StatusHistory status) {
+        ApiFutures.addCallback(currentStatusRef(status.getTicketId()).create(StatusHistoryCodec.encode(status)),
+                new ApiFutureCallback<>() {
+                    @Override
+                    public void onFailure(Throwable t) {
+                        log.debug("Current status for ticket {} not backfilled: {}", status.getTicketId(), t.getMessage());
+                    }
+
+                    @Override
+                    public void onSuccess(WriteResult result) {
+                        log.debug("Backfilled current status for ticket: {}", status.getTicketId());
+                    }
+                }, Runnable::run);
     }
 
-    private LocalDateTime dateToLocalDateTime(Date date) {
-        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    // History queries for tickets without a current-status document, at most
+    // fallbackConcurrency at a time
+    private CompletableFuture<Void> findLatestInWaves(List<String> ticketIds, int from, Map<String, StatusHistory> found) {
+        if (from >= ticketIds.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int to = Math.min(from + Math.max(1, fallbackConcurrency), ticketIds.size());
+        List<CompletableFuture<Void>> wave = new ArrayList<>();
+
+        for (String ticketId : ticketIds.subList(from, to)) {
+            long generation = writeGenerations.current(ticketId);
+            wave.add(FirestoreFutures.toCompletableFuture(latestStatusQuery(ticketId).get(), "Failed to find current status")
+                    .thenAccept(snapshot -> {
+                        if (!snapshot.isEmpty()) {
+                            StatusHistory status = StatusHistoryCodec.decode(snapshot.getDocuments().get(0));
+                            backfillCurrentStatus(status);
+                            cacheRead(status, generation);
+                            found.put(ticketId, status);
+                        }
+                    }));
+        }
+
+        return CompletableFuture.allOf(wave.toArray(new CompletableFuture[0]))
+                .thenCompose(done -> findLatestInWaves(ticketIds, to, found));
+    }
+
+    private Query latestStatusQuery(String ticketId) {
+        return firestore.collection(collectionName)
+                .whereEqualTo("ticketId", ticketId)
+                .orderBy("updatedAt", Query.Direction.DESCENDING)
+                .limit(1);
+    }
+
+    private DocumentReference currentStatusRef(String ticketId) {
+        return firestore.collection(currentStatusCollectionName).document(DocumentKeys.storageKey(ticketId));
+    }
+
+    // A write updates the cached entry in place, but never replaces a newer status that a
+    // concurrent reader may already have cached; entries are copies because callers mutate models.
+    private void cacheIfLatest(StatusHistory status) {
+        StatusHistory snapshot = status.toBuilder().build();
+        currentStatusCache.asMap().merge(status.getTicketId(), snapshot,
+                (current, candidate) -> candidate.getUpdatedAt().isBefore(current.getUpdatedAt()) ? current : candidate);
+    }
+
+    // A read only caches if no status was written for the ticket since it started, so an entry
+    // evicted after a write is not refilled with the status that write replaced. A write that
+    // lands between the check and the merge is either undone here or merges after it.
+    private void cacheRead(StatusHistory status, long generation) {
+        String ticketId = status.getTicketId();
+        if (writeGenerations.changedSince(ticketId, generation)) {
+            return;
+        }
+
+        cacheIfLatest(status);
+        if (writeGenerations.changedSince(ticketId, generation)) {
+            currentStatusCache.invalidate(ticketId);
+        }
+    }
+
+    // After a write, reads already in flight may return the previous status, so none is joined
+    private void cacheWritten(StatusHistory status) {
+        writeGenerations.advance(status.getTicketId());
+        currentStatusReads.forget(status.getTicketId());
+        cacheIfLatest(status);
+    }
+
+    private DocumentReference documentRef(String statusId) {
+        return firestore.collection(collectionName).document(DocumentKeys.storageKey(statusId));
+    }
+
+    private String encodeCursor(long updatedAt, String documentId) {
+        String raw = updatedAt + "|" + documentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new PageCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    private record PageCursor(long updatedAt, String documentId) {
+    }
+
+    // History cursors name their layout: "b|bucket|index" or "f|updatedAt|documentId"
+    private String encodeBucketCursor(StatusHistoryBucketRepository.Position position) {
+        return encodeHistoryCursor("b|" + position.bucket() + "|" + position.index());
+    }
+
+    private String encodeFlatCursor(DocumentSnapshot document) {
+        return encodeHistoryCursor("f|" + document.getDate("updatedAt").getTime() + "|" + document.getId());
+    }
+
+    private String encodeHistoryCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HistoryCursor decodeHistoryCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            return switch (parts[0]) {
+                case "b" -> new HistoryCursor(new StatusHistoryBucketRepository.Position(
+                        Long.parseLong(parts[1]), Integer.parseInt(parts[2])), null);
+                case "f" -> new HistoryCursor(null, new PageCursor(Long.parseLong(parts[1]), parts[2]));
+                default -> throw new IllegalArgumentException();
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid history cursor: " + cursor);
+        }
+    }
+
+    // Exactly one of the two is set
+    private record HistoryCursor(StatusHistoryBucketRepository.Position position, PageCursor flat) {
+
+        boolean bucketed() {
+            return position != null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.helpdesk.status.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.helpdesk.status.exception.StatusServiceException;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.util.TimeConversions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Pre-aggregated status transition counts in UTC hour and day buckets. Each bucket is split
+// over a fixed number of shard documents so that busy hours do not exceed Firestore's
+// sustained write rate for a single document; readers sum the shards.
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class StatusRollupRepository {
+
+    private static final String META_DOCUMENT = "meta";
+    private static final int GET_ALL_CHUNK_SIZE = 500;
+
+    private final Firestore firestore;
+
+    @Value("${firestore.collection.status-rollups:status-rollups}")
+    private String collectionName;
+
+    @Value("${status-rollups.shards:10}")
+    private int shards;
+
+    private volatile Instant rollupsSince;
+
+    public enum Granularity {
+        HOUR("hour", ChronoUnit.HOURS, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH")),
+        DAY("day", ChronoUnit.DAYS, DateTimeFormatter.ISO_LOCAL_DATE);
+
+        private final String prefix;
+        private final ChronoUnit unit;
+        private final DateTimeFormatter format;
+
+        Granularity(String prefix, ChronoUnit unit, DateTimeFormatter format) {
+            this.prefix = prefix;
+            this.unit = unit;
+            this.format = format.withZone(ZoneOffset.UTC);
+        }
+
+        public Instant bucketStart(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+
+        public Instant bucketEnd(Instant bucketStart) {
+            return bucketStart.plus(1, unit);
+        }
+
+        String bucketId(Instant bucketStart) {
+            return prefix + "-" + format.format(bucketStart);
+        }
+    }
+
+    // Adds the hour and day increments for one status change to the caller's batch or
+    // transaction, so the rollups commit atomically with the status document itself
+    public void stageIncrements(UpdateBuilder<?> writes, StatusHistory statusHistory) {
+        Instant updatedAt = Instant.ofEpochMilli(TimeConversions.toEpochMilli(statusHistory.getUpdatedAt()));
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        Map<String, Object> increment = Map.of(statusHistory.getStatus().name(), FieldValue.increment(1));
+
+        for (Granularity granularity : Granularity.values()) {
+            String bucketId = granularity.bucketId(granularity.bucketStart(updatedAt));
+            writes.set(shardRef(bucketId, shard), increment, SetOptions.merge());
+        }
+    }
+
+    // Per-bucket counts indexed by TicketStatus ordinal; buckets without documents count as zero
+    public Map<Instant, long[]> findBuckets(Granularity granularity, List<Instant> bucketStarts) {
+        try {
+            log.info("Reading {} {} rollup bucket(s)", bucketStarts.size(), granularity);
+
+            Map<Instant, long[]> counts = new HashMap<>();
+            List<DocumentReference> refs = new ArrayList<>(bucketStarts.size() * shards);
+            List<Instant> owners = new ArrayList<>(bucketStarts.size() * shards);
+
+            for (Instant bucketStart : bucketStarts) {
+                counts.put(bucketStart, new long[TicketStatus.values().length]);
+                String bucketId = granularity.bucketId(bucketStart);
+                for (int shard = 0; shard < shards; shard++) {
+                    refs.add(shardRef(bucketId, shard));
+                    owners.add(bucketStart);
+                }
+            }
+
+            for (int from = 0; from < refs.size(); from += GET_ALL_CHUNK_SIZE) {
+                int to = Math.min(from + GET_ALL_CHUNK_SIZE, refs.size());
+                List<DocumentSnapshot> snapshots = firestore
+                        .getAll(refs.subList(from, to).toArray(new DocumentReference[0]))
+                        .get();
+
+                // getAll returns snapshots in request order
+                for (int i = 0; i < snapshots.size(); i++) {
+                    DocumentSnapshot snapshot = snapshots.get(i);
+                    if (snapshot.exists()) {
+                        addShard(counts.get(owners.get(from + i)), snapshot);
+                    }
+                }
+            }
+
+            return counts;
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error reading status rollups: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new StatusServiceException("Failed to read status rollups", e);
+        }
+    }
+
+    // When rollups started being written; history before it is only available as raw events
+    public Instant rollupsSince() {
+        Instant since = rollupsSince;
+        if (since != null) {
+            return since;
+        }
+
+        synchronized (this) {
+            if (rollupsSince == null) {
+                rollupsSince = loadOrCreateSince();
+            }
+            return rollupsSince;
+        }
+    }
+
+    private Instant loadOrCreateSince() {
+        try {
+            DocumentReference metaRef = firestore.collection(collectionName).document(META_DOCUMENT);
+
+            // A transaction so that concurrent replicas agree on a single start time
+            Timestamp since = firestore.runTransaction(transaction -> {
+                DocumentSnapshot meta = transaction.get(metaRef).get();
+                if (meta.exists() && meta.getTimestamp("since") != null) {
+                    return meta.getTimestamp("since");
+                }
+
+                Timestamp now = Timestamp.now();
+                transaction.set(metaRef, Map.of("since", now));
+                return now;
+            }).get();
+
+            log.info("Status rollups available since {}", since.toDate().toInstant());
+            return since.toDate().toInstant();
+
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error reading status rollup metadata: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new StatusServiceException("Failed to read status rollup metadata", e);
+        }
+    }
+
+    private void addShard(long[] counts, DocumentSnapshot shard) {
+        for (TicketStatus status : TicketStatus.values()) {
+            Long value = shard.getLong(status.name());
+            if (value != null) {
+                counts[status.ordinal()] += value;
+            }
+        }
+    }
+
+    private DocumentReference shardRef(String bucketId, int shard) {
+        return firestore.collection(collectionName).document(bucketId + "-s" + shard);
+    }
+}
@@ -3,6 +3,7 @@ package com.helpdesk.status.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.helpdesk.status.dto.ApiResponse;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,24 +14,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     private ObjectMapper objectMapper;
 
     @Autowired
@@ -50,42 +47,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        try {
-            String jwt = extractJwtFromRequest(request);
-
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                Object rolesObj = jwtUtil.extractRoles(jwt);
-                Set<String> roles = new HashSet<>();
+        String jwt = extractJwtFromRequest(request);
 
-                if (rolesObj instanceof List) {
-                    roles.addAll((List<String>) rolesObj);
-                } else if (rolesObj instanceof Set) {
-                    roles = (Set<String>) rolesObj;
-                }
-
-                Set<SimpleGrantedAuthority> authorities = roles.stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toSet());
+        if (jwt == null) {
+            log.warn("Missing JWT token for protected endpoint: {}", path);
+            sendUnauthorizedResponse(response, "Missing authentication token. Please login first.");
+            return;
+        }
 
-                String username = jwtUtil.extractUsername(jwt);
+        try {
+            // Verified once per token; repeat requests only pay for a digest and a cache lookup
+            Authentication verified = verifiedTokenCache.authenticate(jwt);
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(verified.getPrincipal(), null, verified.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.debug("User authenticated: {} with roles: {}", username, roles);
-            } else if (jwt != null) {
-                log.warn("Invalid JWT token for path: {}", path);
-                sendUnauthorizedResponse(response, "Invalid or expired token");
-                return;
-            } else {
-                log.warn("Missing JWT token for protected endpoint: {}", path);
-                sendUnauthorizedResponse(response, "Missing authentication token. Please login first.");
-                return;
-            }
+            log.debug("User authenticated: {} with roles: {}", verified.getName(), verified.getAuthorities());
 
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token for path: {} ({})", path, e.getMessage());
+            sendUnauthorizedResponse(response, "Invalid or expired token");
+            return;
         } catch (Exception e) {
             log.error("Authentication error: {}", e.getMessage(), e);
             sendUnauthorizedResponse(response, "Authentication failed: " + e.getMessage());
@@ -1,14 +1,20 @@
 package com.helpdesk.status.security.service;
 
+import com.helpdesk.status.exception.ServiceUnavailableException;
 import com.helpdesk.status.security.JwtUtil;
 import com.helpdesk.status.security.dto.LoginRequest;
 import com.helpdesk.status.security.dto.LoginResponse;
 import com.helpdesk.status.security.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,10 +22,22 @@ public class AuthenticationService {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
 
-    public LoginResponse authenticate(LoginRequest request) {
+    public CompletableFuture<LoginResponse> authenticate(LoginRequest request) {
         log.info("Authentication attempt for user: {}", request.getUsername());
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return verifyCredentials(request)
+                    .whenComplete((response, e) -> stopLoginTimer(sample, e == null ? "success" : outcomeOf(e)));
+        } catch (RuntimeException e) {
+            stopLoginTimer(sample, outcomeOf(e));
+            throw e;
+        }
+    }
+
+    private CompletableFuture<LoginResponse> verifyCredentials(LoginRequest request) {
         User user = userService.findByUsername(request.getUsername())
                 .orElseThrow(() -> {
                     log.warn("User not found: {}", request.getUsername());
@@ -31,23 +49,44 @@ public class AuthenticationService {
             throw new BadCredentialsException("User account is disabled");
         }
 
-        if (!userService.validatePassword(request.getPassword(), user.getPassword())) {
-            log.warn("Invalid password for user: {}", request.getUsername());
-            throw new BadCredentialsException("Invalid username or password");
-        }
+        return userService.validatePassword(request.getPassword(), user.getPassword()).thenApply(valid -> {
+            if (!valid) {
+                log.warn("Invalid password for user: {}", request.getUsername());
+                throw new BadCredentialsException("Invalid username or password");
+            }
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRoles(), user.getEmail());
+            String token = jwtUtil.generateToken(user.getUsername(), user.getRoles(), user.getEmail());
 
-        log.info("User authenticated successfully: {}", request.getUsername());
+            log.info("User authenticated successfully: {}", request.getUsername());
 
-        return LoginResponse.builder()
-                .token(token)
-                .type("Bearer")
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .roles(user.getRoles())
-                .expiresAt(jwtUtil.extractExpiration(token))
-                .build();
+            return LoginResponse.builder()
+                    .token(token)
+                    .type("Bearer")
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .fullName(user.getFullName())
+                    .roles(user.getRoles())
+                    .expiresAt(jwtUtil.extractExpiration(token))
+                    .build();
+        });
+    }
+
+    // Latency includes time spent waiting for a BCrypt worker
+    private void stopLoginTimer(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("auth.login")
+                .description("Login latency including the wait for a password check")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private String outcomeOf(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof BadCredentialsException) {
+            return "rejected_credentials";
+        }
+        if (cause instanceof ServiceUnavailableException) {
+            return "overloaded";
+        }
+        return "error";
     }
 }
\ No newline at end of file
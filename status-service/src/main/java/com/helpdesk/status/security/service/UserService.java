@@ -2,17 +2,22 @@ package com.helpdesk.status.security.service;
 
 import com.helpdesk.status.security.model.User;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class UserService {
 
+    private final PasswordVerifier passwordVerifier;
+
     private final Map<String, User> users = new HashMap<>();
     private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
@@ -49,8 +54,8 @@ public class UserService {
         return Optional.ofNullable(users.get(username));
     }
 
-    public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+    public CompletableFuture<Boolean> validatePassword(String rawPassword, String encodedPassword) {
+        return passwordVerifier.verify(() -> passwordEncoder.matches(rawPassword, encodedPassword));
     }
 
     public List<User> getAllUsers() {
@@ -0,0 +1,89 @@
+package com.helpdesk.status.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.repository.StatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatusExportService {
+
+    private static final String CSV_HEADER = "statusId,ticketId,status,updatedBy,updatedAt,comments";
+
+    private final StatusRepository statusRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.chunk-size:500}")
+    private int chunkSize;
+
+    public void writeNdjson(OutputStream outputStream) throws IOException {
+        log.info("Exporting status updates as NDJSON");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long count = statusRepository.streamAll(chunkSize, statusHistory -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(statusHistory));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+
+        log.info("Exported {} status updates as NDJSON", count);
+    }
+
+    public void writeCsv(OutputStream outputStream) throws IOException {
+        log.info("Exporting status updates as CSV");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = statusRepository.streamAll(chunkSize, statusHistory -> {
+            try {
+                writeCsvRow(writer, statusHistory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+
+        log.info("Exported {} status updates as CSV", count);
+    }
+
+    private void writeCsvRow(Writer writer, StatusHistory statusHistory) throws IOException {
+        writer.write(String.join(",",
+                csv(statusHistory.getStatusId()),
+                csv(statusHistory.getTicketId()),
+                csv(statusHistory.getStatus()),
+                csv(statusHistory.getUpdatedBy()),
+                csv(statusHistory.getUpdatedAt()),
+                csv(statusHistory.getComments())));
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,51 @@
+package com.helpdesk.status.service;
+
+import com.helpdesk.status.exception.StatusServiceException;
+import com.helpdesk.status.repository.StatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatusHistoryBackfill {
+
+    private final StatusRepository statusRepository;
+
+    @Value("${status-history.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    // Documents per Firestore read while collecting ticket IDs
+    @Value("${status-history.backfill-chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            Set<String> ticketIds = new LinkedHashSet<>();
+            statusRepository.streamAll(chunkSize, statusHistory -> ticketIds.add(statusHistory.getTicketId()));
+
+            long rebuilt = 0;
+            for (String ticketId : ticketIds) {
+                if (statusRepository.rebuildHistoryBuckets(ticketId)) {
+                    rebuilt++;
+                }
+            }
+
+            log.info("Status history backfill finished, {} of {} ticket(s) rebuilt", rebuilt, ticketIds.size());
+        } catch (StatusServiceException e) {
+            log.error("Status history backfill failed, remaining tickets keep the flat history: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.helpdesk.status.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.helpdesk.status.exception.InvalidRequestException;
+import com.helpdesk.status.exception.StatusServiceException;
+import com.helpdesk.status.model.StatusRangeSummary;
+import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.repository.StatusRepository;
+import com.helpdesk.status.repository.StatusRollupRepository;
+import com.helpdesk.status.repository.StatusRollupRepository.Granularity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatusRollupService {
+
+    // Allowance for clock skew between replicas before a finished bucket is treated as final
+    private static final Duration CLOSE_GRACE = Duration.ofMinutes(1);
+
+    private final StatusRollupRepository statusRollupRepository;
+    private final StatusRepository statusRepository;
+
+    // Buckets that ended in the past never change again, so they are not read twice while cached
+    private final Cache<String, long[]> closedRollupBuckets;
+
+    @Value("${status-rollups.max-range-days:366}")
+    private int maxRangeDays;
+
+    // Records the rollup start time at boot, so that history predating it is as short as possible
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            statusRollupRepository.rollupsSince();
+        } catch (StatusServiceException e) {
+            log.error("Failed to initialize status rollups, retrying on first summary request: {}", e.getMessage());
+        }
+    }
+
+    public StatusRangeSummary getSummary(LocalDate from, LocalDate to, ZoneId zone) {
+        log.info("Fetching status summary from {} to {} ({})", from, to, zone);
+
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidRequestException("Summary range is limited to " + maxRangeDays + " days");
+        }
+
+        // Buckets are whole UTC hours, so zones with sub-hour offsets are aligned to the hour
+        Instant start = Granularity.HOUR.bucketStart(from.atStartOfDay(zone).toInstant());
+        Instant end = ceilToHour(to.plusDays(1).atStartOfDay(zone).toInstant());
+        Instant now = Instant.now();
+
+        long[] counts = new long[TicketStatus.values().length];
+
+        // Anything before the rollups were introduced is counted from the raw history instead
+        Instant rollupsFrom = ceilToHour(statusRollupRepository.rollupsSince());
+        Instant legacyEnd = min(end, rollupsFrom);
+        if (start.isBefore(legacyEnd)) {
+            add(counts, legacyCounts(start, legacyEnd, now));
+        }
+
+        // Whole UTC days use the day buckets, the ragged edges use hour buckets
+        List<Instant> hours = new ArrayList<>();
+        List<Instant> days = new ArrayList<>();
+        Instant cursor = start.isAfter(rollupsFrom) ? start : rollupsFrom;
+
+        while (cursor.isBefore(end) && cursor.isBefore(now)) {
+            Instant dayEnd = Granularity.DAY.bucketEnd(cursor);
+            if (Granularity.DAY.bucketStart(cursor).equals(cursor) && !dayEnd.isAfter(end)) {
+                days.add(cursor);
+                cursor = dayEnd;
+            } else {
+                hours.add(cursor);
+                cursor = Granularity.HOUR.bucketEnd(cursor);
+            }
+        }
+
+        add(counts, bucketCounts(Granularity.HOUR, hours, now));
+        add(counts, bucketCounts(Granularity.DAY, days, now));
+
+        StatusRangeSummary summary = StatusRangeSummary.builder()
+                .from(from)
+                .to(to)
+                .zone(zone.getId())
+                .openCount(counts[TicketStatus.OPEN.ordinal()])
+                .inProgressCount(counts[TicketStatus.IN_PROGRESS.ordinal()])
+                .resolvedCount(counts[TicketStatus.RESOLVED.ordinal()])
+                .closedCount(counts[TicketStatus.CLOSED.ordinal()])
+                .build();
+        summary.setTotalCount(summary.getOpenCount() + summary.getInProgressCount()
+                + summary.getResolvedCount() + summary.getClosedCount());
+
+        log.info("Status summary from {} to {} built from {} day and {} hour bucket(s): {} total",
+                from, to, days.size(), hours.size(), summary.getTotalCount());
+        return summary;
+    }
+
+    private long[] bucketCounts(Granularity granularity, List<Instant> bucketStarts, Instant now) {
+        long[] counts = new long[TicketStatus.values().length];
+        List<Instant> missing = new ArrayList<>();
+
+        for (Instant bucketStart : bucketStarts) {
+            long[] cached = closedRollupBuckets.getIfPresent(granularity + ":" + bucketStart);
+            if (cached != null) {
+                add(counts, cached);
+            } else {
+                missing.add(bucketStart);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return counts;
+        }
+
+        for (Map.Entry<Instant, long[]> bucket : statusRollupRepository.findBuckets(granularity, missing).entrySet()) {
+            add(counts, bucket.getValue());
+            if (isClosed(granularity.bucketEnd(bucket.getKey()), now)) {
+                closedRollupBuckets.put(granularity + ":" + bucket.getKey(), bucket.getValue());
+            }
+        }
+
+        return counts;
+    }
+
+    private long[] legacyCounts(Instant from, Instant to, Instant now) {
+        String key = "legacy:" + from + "/" + to;
+
+        long[] cached = closedRollupBuckets.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long[] counts = statusRepository.countStatusEventsBetween(from, to);
+        if (isClosed(to, now)) {
+            closedRollupBuckets.put(key, counts);
+        }
+        return counts;
+    }
+
+    private boolean isClosed(Instant bucketEnd, Instant now) {
+        return !bucketEnd.plus(CLOSE_GRACE).isAfter(now);
+    }
+
+    private static Instant ceilToHour(Instant instant) {
+        Instant floor = Granularity.HOUR.bucketStart(instant);
+        return floor.equals(instant) ? floor : Granularity.HOUR.bucketEnd(floor);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package com.helpdesk.status.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.helpdesk.status.dto.TicketStatusResponse;
 import com.helpdesk.status.dto.UpdateStatusRequest;
+import com.helpdesk.status.exception.InvalidRequestException;
 import com.helpdesk.status.exception.StatusNotFoundException;
 import com.helpdesk.status.model.StatusHistory;
 import com.helpdesk.status.model.StatusSummary;
 import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.repository.CursorPage;
+import com.helpdesk.status.repository.StatusHistoryPage;
 import com.helpdesk.status.repository.StatusRepository;
+import com.helpdesk.status.util.FieldSelection;
+import com.helpdesk.status.util.IdGenerator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -22,13 +35,27 @@ import java.util.Map;
 public class StatusService {
 
     private final StatusRepository statusRepository;
+    private final IdGenerator idGenerator;
+    private final MeterRegistry meterRegistry;
 
+    // Past days can no longer receive updates, so their summaries are not computed twice while cached
+    private final Cache<LocalDate, StatusSummary> closedDaySummaries;
 
-    public StatusHistory updateStatus(UpdateStatusRequest request) {
+    @Value("${current-status.batch.max-ids:500}")
+    private int maxBatchIds;
+
+    @Value("${pagination.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+
+    public CompletableFuture<StatusHistory> updateStatus(UpdateStatusRequest request) {
         log.info("Updating status for ticket: {} to {}", request.getTicketId(), request.getStatus());
 
         StatusHistory statusHistory = StatusHistory.builder()
-                .statusId(StatusHistory.generateStatusId())
+                .statusId(idGenerator.nextId(StatusHistory.ID_PREFIX))
                 .ticketId(request.getTicketId())
                 .status(request.getStatus())
                 .updatedBy(request.getUpdatedBy())
@@ -36,40 +63,88 @@ public class StatusService {
                 .comments(request.getComments())
                 .build();
 
-        StatusHistory savedStatus = statusRepository.save(statusHistory);
-        log.info("Status updated successfully for ticket: {}", request.getTicketId());
-
-        return savedStatus;
+        return statusRepository.saveAsync(statusHistory).thenApply(savedStatus -> {
+            log.info("Status updated successfully for ticket: {}", request.getTicketId());
+            return savedStatus;
+        });
     }
 
-    public StatusHistory getCurrentStatus(String ticketId) {
+    public CompletableFuture<StatusHistory> getCurrentStatus(String ticketId) {
         log.info("Fetching current status for ticket: {}", ticketId);
 
-        return statusRepository.findCurrentStatusByTicketId(ticketId)
-                .orElseThrow(() -> new StatusNotFoundException(
-                        "No status found for ticket: " + ticketId));
+        return statusRepository.findCurrentStatusByTicketIdAsync(ticketId)
+                .thenApply(status -> status.orElseThrow(() -> new StatusNotFoundException(
+                        "No status found for ticket: " + ticketId)));
     }
 
-    public TicketStatusResponse getTicketStatusHistory(String ticketId) {
-        log.info("Fetching complete status history for ticket: {}", ticketId);
+    public CompletableFuture<Map<String, StatusHistory>> getCurrentStatuses(List<String> ticketIds) {
+        log.info("Fetching current status for {} ticket(s)", ticketIds.size());
+
+        if (ticketIds.size() > maxBatchIds) {
+            throw new InvalidRequestException("At most " + maxBatchIds + " ticket IDs per request");
+        }
+
+        DistributionSummary.builder("status.current.batch.size")
+                .description("Ticket IDs per batch current-status lookup")
+                .register(meterRegistry)
+                .record(ticketIds.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return statusRepository.findCurrentStatusesByTicketIdsAsync(ticketIds)
+                .whenComplete((statuses, e) -> sample.stop(Timer.builder("status.current.batch")
+                        .description("Latency of a batch current-status lookup")
+                        .tag("outcome", e == null ? "success" : "error")
+                        .register(meterRegistry)));
+    }
+
+    public CompletableFuture<TicketStatusResponse> getTicketStatusHistory(String ticketId, Integer limit,
+                                                                          String before, String after) {
+        log.info("Fetching status history for ticket: {}", ticketId);
+
+        CompletableFuture<StatusHistoryPage> page =
+                statusRepository.findHistoryPageAsync(ticketId, resolvePageSize(limit), before, after);
+        CompletableFuture<Optional<StatusHistory>> current = statusRepository.findCurrentStatusByTicketIdAsync(ticketId);
+
+        return page.thenCombine(current, (historyPage, currentStatus) -> {
+            StatusHistory latest = currentStatus.orElseThrow(() -> new StatusNotFoundException(
+                    "No status history found for ticket: " + ticketId));
+
+            return TicketStatusResponse.builder()
+                    .ticketId(ticketId)
+                    .currentStatus(latest.getStatus())
+                    .statusHistory(historyPage.items())
+                    .totalUpdates((int) historyPage.totalUpdates())
+                    .beforeCursor(historyPage.beforeCursor())
+                    .afterCursor(historyPage.afterCursor())
+                    .build();
+        });
+    }
 
-        List<StatusHistory> history = statusRepository.findByTicketId(ticketId);
+    public CompletableFuture<Long> countStatusUpdates(TicketStatus status, LocalDateTime from, LocalDateTime to) {
+        log.info("Counting status updates (status: {}, from: {}, to: {})", status, from, to);
 
-        if (history.isEmpty()) {
-            throw new StatusNotFoundException("No status history found for ticket: " + ticketId);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestException("'from' must be before 'to'");
         }
 
-        return TicketStatusResponse.builder()
-                .ticketId(ticketId)
-                .currentStatus(history.get(0).getStatus()) // First one is latest (DESC order)
-                .statusHistory(history)
-                .totalUpdates(history.size())
-                .build();
+        return statusRepository.countUpdatesAsync(status,
+                from != null ? from.atZone(ZoneId.systemDefault()).toInstant() : null,
+                to != null ? to.atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+
+    public CompletableFuture<Map<TicketStatus, Long>> countTicketsByCurrentStatus() {
+        log.info("Counting tickets by current status");
+        return statusRepository.countCurrentByStatusAsync();
     }
 
     public StatusSummary getDailySummary(LocalDate date) {
         log.info("Fetching daily summary for date: {}", date);
 
+        StatusSummary cached = closedDaySummaries.getIfPresent(date);
+        if (cached != null) {
+            return cached.toBuilder().build();
+        }
+
         Map<TicketStatus, Long> summary = statusRepository.getStatusSummaryByDate(date);
 
         StatusSummary statusSummary = new StatusSummary(date);
@@ -86,12 +161,27 @@ public class StatusService {
         statusSummary.setTotalCount(total);
 
         log.info("Daily summary generated: {} total tickets", total);
+
+        if (date.isBefore(LocalDate.now())) {
+            closedDaySummaries.put(date, statusSummary.toBuilder().build());
+        }
         return statusSummary;
     }
 
 
-    public List<StatusHistory> getAllStatusUpdates() {
+    public CompletableFuture<CursorPage<StatusHistory>> getAllStatusUpdates(Integer limit, String cursor, String fields) {
         log.info("Fetching all status updates");
-        return statusRepository.findAll();
+        return statusRepository.findPageAsync(resolvePageSize(limit), cursor,
+                FieldSelection.parse(fields, StatusRepository.SELECTABLE_FIELDS));
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new InvalidRequestException("Page size must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
     }
 }
\ No newline at end of file
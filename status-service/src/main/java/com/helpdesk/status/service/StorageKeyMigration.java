@@ -0,0 +1,38 @@
+package com.helpdesk.status.service;
+
+import com.helpdesk.status.exception.StatusServiceException;
+import com.helpdesk.status.repository.StatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageKeyMigration {
+
+    private final StatusRepository statusRepository;
+
+    @Value("${storage-keys.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${storage-keys.migration-chunk-size:250}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!migrateOnStartup) {
+            return;
+        }
+
+        try {
+            long migrated = statusRepository.migrateStorageKeys(chunkSize);
+            log.info("Storage key migration finished, {} status update(s) moved", migrated);
+        } catch (StatusServiceException e) {
+            log.error("Storage key migration failed, legacy keys remain readable: {}", e.getMessage());
+        }
+    }
+}
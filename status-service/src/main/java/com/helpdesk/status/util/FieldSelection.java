@@ -0,0 +1,87 @@
+package com.helpdesk.status.util;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.helpdesk.status.exception.InvalidRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// A validated ?fields= list. Repositories push it down to Firestore select() projections, and
+// responses only serialize these properties of models annotated with @JsonFilter(FILTER_ID).
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fieldSelection";
+    public static final String PARAMETER = "fields";
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null selects every field
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    public static FieldSelection parse(String raw, Set<String> allowed) {
+        return parse(raw, allowed, true);
+    }
+
+    // For output filtering only, once the names have been validated elsewhere
+    public static FieldSelection parseUnchecked(String raw) {
+        return parse(raw, Set.of(), false);
+    }
+
+    private static FieldSelection parse(String raw, Set<String> allowed, boolean validate) {
+        if (raw == null || raw.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        for (String part : raw.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (validate && !allowed.contains(field)) {
+                throw new InvalidRequestException("Unknown field '" + field + "', expected one of " + allowed);
+            }
+            fields.add(field);
+        }
+
+        return fields.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(fields));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesAny(String... candidates) {
+        for (String candidate : candidates) {
+            if (includes(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<String> fields() {
+        return fields;
+    }
+
+    public FilterProvider filterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
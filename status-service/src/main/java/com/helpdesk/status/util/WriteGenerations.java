@@ -0,0 +1,31 @@
+package com.helpdesk.status.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Striped per-key write counters that keep reads from caching what a concurrent write replaced.
+// A reader notes the counter before going to Firestore and only caches its result if no write
+// to that key (or to a key sharing its stripe) happened since. Writers advance the counter
+// before they update or invalidate the cache.
+public class WriteGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES);
+
+    public long current(Object key) {
+        return counters.get(stripe(key));
+    }
+
+    public void advance(Object key) {
+        counters.incrementAndGet(stripe(key));
+    }
+
+    public boolean changedSince(Object key, long generation) {
+        return counters.get(stripe(key)) != generation;
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
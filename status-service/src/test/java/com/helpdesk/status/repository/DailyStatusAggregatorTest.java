@@ -0,0 +1,81 @@
+package com.helpdesk.status.repository;
+
+import com.helpdesk.status.model.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyStatusAggregatorTest {
+
+	private static final TicketStatus[] STATUSES = TicketStatus.values();
+	private static final int ACTIVE_TICKETS = 20_000;
+
+	@Test
+	void countsOnlyTheLatestStatusPerTicketRegardlessOfArrivalOrder() {
+		DailyStatusAggregator aggregator = new DailyStatusAggregator();
+
+		aggregator.accept("TKT-1", TicketStatus.RESOLVED, 3_000);
+		aggregator.accept("TKT-1", TicketStatus.OPEN, 1_000);
+		aggregator.accept("TKT-1", TicketStatus.IN_PROGRESS, 2_000);
+		aggregator.accept("TKT-2", TicketStatus.OPEN, 1_000);
+		aggregator.accept("TKT-3", TicketStatus.CLOSED, 5_000);
+		aggregator.accept("TKT-3", TicketStatus.RESOLVED, 5_000);
+
+		Map<TicketStatus, Long> summary = aggregator.summary();
+
+		assertThat(summary).containsEntry(TicketStatus.OPEN, 1L)
+				.containsEntry(TicketStatus.IN_PROGRESS, 0L)
+				.containsEntry(TicketStatus.RESOLVED, 1L)
+				.containsEntry(TicketStatus.CLOSED, 1L);
+		assertThat(aggregator.eventCount()).isEqualTo(6);
+	}
+
+	// A day's worth of events is folded without keeping them; the summary must match the latest
+	// status per ticket worked out from a replay of the same events
+	@Test
+	void summarizesOneMillionEventsLikeAReplay() {
+		int events = 1_000_000;
+		String[] ticketIds = new String[ACTIVE_TICKETS];
+		for (int i = 0; i < ticketIds.length; i++) {
+			ticketIds[i] = "TKT-" + i;
+		}
+
+		DailyStatusAggregator aggregator = new DailyStatusAggregator();
+		Random random = new Random(42);
+		for (int i = 0; i < events; i++) {
+			aggregator.accept(ticketIds[random.nextInt(ticketIds.length)],
+					STATUSES[random.nextInt(STATUSES.length)],
+					random.nextInt(86_400_000));
+		}
+
+		Map<String, TicketStatus> latestStatus = new HashMap<>();
+		Map<String, Integer> latestAt = new HashMap<>();
+		Random replay = new Random(42);
+		for (int i = 0; i < events; i++) {
+			String ticketId = ticketIds[replay.nextInt(ticketIds.length)];
+			TicketStatus status = STATUSES[replay.nextInt(STATUSES.length)];
+			int updatedAt = replay.nextInt(86_400_000);
+
+			Integer previousAt = latestAt.get(ticketId);
+			if (previousAt == null || updatedAt > previousAt
+					|| (updatedAt == previousAt && status.compareTo(latestStatus.get(ticketId)) > 0)) {
+				latestStatus.put(ticketId, status);
+				latestAt.put(ticketId, updatedAt);
+			}
+		}
+
+		Map<TicketStatus, Long> expected = new EnumMap<>(TicketStatus.class);
+		for (TicketStatus status : STATUSES) {
+			expected.put(status, 0L);
+		}
+		latestStatus.values().forEach(status -> expected.merge(status, 1L, Long::sum));
+
+		assertThat(aggregator.summary()).isEqualTo(expected);
+		assertThat(aggregator.eventCount()).isEqualTo(events);
+	}
+}
@@ -0,0 +1,82 @@
+package com.helpdesk.status.repository;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.TicketStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StatusHistoryBucketRepositoryTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 3, 29, 9, 0);
+
+	private final StatusHistoryBucketRepository repository =
+			new StatusHistoryBucketRepository(mock(Firestore.class, RETURNS_DEEP_STUBS));
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void lateUpdateIsRebuiltIntoTimeOrder() {
+		ReflectionTestUtils.setField(repository, "collectionName", "ticket-status-history");
+		ReflectionTestUtils.setField(repository, "bucketSize", 2);
+
+		List<StatusHistory> stored = List.of(status("STS-1", 0), status("STS-3", 2), status("STS-4", 3));
+		List<StatusHistory> history = StatusHistoryBucketRepository.withEntry(stored, status("STS-2", 1));
+
+		Transaction transaction = mock(Transaction.class);
+		Map<String, Object> pointer = repository.stageRebuild(transaction, "TKT-1", history);
+
+		ArgumentCaptor<Map<String, Object>> buckets = ArgumentCaptor.forClass(Map.class);
+		verify(transaction, times(2)).set(any(DocumentReference.class), buckets.capture());
+
+		List<String> statusIds = new ArrayList<>();
+		for (Map<String, Object> bucket : buckets.getAllValues()) {
+			for (Map<String, Object> entry : (List<Map<String, Object>>) bucket.get("entries")) {
+				statusIds.add(StatusHistoryCodec.decodeEntry("TKT-1", entry).getStatusId());
+			}
+		}
+		assertThat(statusIds).containsExactly("STS-1", "STS-2", "STS-3", "STS-4");
+
+		assertThat(pointer)
+				.containsEntry(StatusHistoryBucketRepository.BUCKET_FIELD, 1L)
+				.containsEntry(StatusHistoryBucketRepository.BUCKET_COUNT_FIELD, 2L)
+				.containsEntry(StatusHistoryBucketRepository.COUNT_FIELD, 4L)
+				.containsEntry(StatusHistoryBucketRepository.COMPLETE_FIELD, true);
+	}
+
+	@Test
+	void entryFollowsEqualTimesAndReplacesItsStoredCopy() {
+		List<StatusHistory> stored = List.of(status("STS-1", 0), status("STS-2", 1), status("STS-3", 2));
+
+		assertThat(StatusHistoryBucketRepository.withEntry(stored, status("STS-4", 1)))
+				.extracting(StatusHistory::getStatusId)
+				.containsExactly("STS-1", "STS-2", "STS-4", "STS-3");
+		assertThat(StatusHistoryBucketRepository.withEntry(stored, status("STS-1", 1)))
+				.extracting(StatusHistory::getStatusId)
+				.containsExactly("STS-2", "STS-1", "STS-3");
+	}
+
+	private static StatusHistory status(String statusId, int minutes) {
+		return StatusHistory.builder()
+				.statusId(statusId)
+				.ticketId("TKT-1")
+				.status(TicketStatus.IN_PROGRESS)
+				.updatedBy("EMP-1")
+				.updatedAt(START.plusMinutes(minutes))
+				.build();
+	}
+}
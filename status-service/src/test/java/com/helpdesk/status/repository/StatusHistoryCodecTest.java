@@ -0,0 +1,76 @@
+package com.helpdesk.status.repository;
+
+import com.google.cloud.Timestamp;
+import com.helpdesk.status.model.StatusHistory;
+import com.helpdesk.status.model.TicketStatus;
+import com.helpdesk.status.util.TimeConversions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatusHistoryCodecTest {
+
+	private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 3, 29, 1, 30, 15, 123_000_000);
+
+	@Test
+	void bucketEntryRoundTripsWithDateOrTimestamp() {
+		StatusHistory status = status();
+		Map<String, Object> entry = StatusHistoryCodec.encodeEntry(status);
+
+		assertThat(entry).doesNotContainKey("ticketId");
+		assertThat(StatusHistoryCodec.decodeEntry("TKT-1", entry)).isEqualTo(status);
+
+		// Nested values are read back from Firestore as Timestamp
+		Map<String, Object> stored = new HashMap<>(entry);
+		stored.put("updatedAt", Timestamp.of((Date) entry.get("updatedAt")));
+		assertThat(StatusHistoryCodec.decodeEntry("TKT-1", stored)).isEqualTo(status);
+	}
+
+	@Test
+	void encodeWritesEveryFieldWithTheStatusName() {
+		Map<String, Object> map = StatusHistoryCodec.encode(status());
+
+		assertThat(map).containsEntry("statusId", "STS-1")
+				.containsEntry("ticketId", "TKT-1")
+				.containsEntry("status", "IN_PROGRESS")
+				.containsEntry("updatedAt", Date.from(UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant()));
+	}
+
+	@Test
+	void timeConversionsMatchZonedDateTimeAcrossAYear() {
+		LocalDateTime time = LocalDateTime.of(2026, 1, 1, 0, 7, 30, 250_000_000);
+		for (int hour = 0; hour < 366 * 24; hour++, time = time.plusHours(1)) {
+			Date expected = Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+			assertThat(TimeConversions.toDate(time)).isEqualTo(expected);
+			assertThat(TimeConversions.toEpochMilli(time)).isEqualTo(expected.getTime());
+
+			Timestamp stored = Timestamp.of(expected);
+			assertThat(TimeConversions.toLocalDateTime(stored))
+					.isEqualTo(stored.toDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+		}
+	}
+
+	@Test
+	void unknownStoredStatusIsRejected() {
+		assertThat(StatusHistoryCodec.status(null)).isNull();
+		assertThatThrownBy(() -> StatusHistoryCodec.status("REOPENED")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static StatusHistory status() {
+		return StatusHistory.builder()
+				.statusId("STS-1")
+				.ticketId("TKT-1")
+				.status(TicketStatus.IN_PROGRESS)
+				.updatedBy("it.support")
+				.updatedAt(UPDATED_AT)
+				.comments("Investigating")
+				.build();
+	}
+}
@@ -0,0 +1,75 @@
+package com.helpdesk.status.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+	@Test
+	void concurrentCallersForOneKeyShareOneCall() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<String> read = new CompletableFuture<>();
+
+		CompletableFuture<String> first = singleFlight.execute("STS-1", () -> {
+			calls.incrementAndGet();
+			return read;
+		});
+		CompletableFuture<String> second = singleFlight.execute("STS-1", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+
+		read.complete("value");
+
+		assertThat(first.get()).isEqualTo("value");
+		assertThat(second.get()).isEqualTo("value");
+		assertThat(calls).hasValue(1);
+		assertThat(meterRegistry.get("singleflight.calls").tag("outcome", "coalesced").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void failureReachesEveryWaitingCaller() {
+		CompletableFuture<String> read = new CompletableFuture<>();
+
+		CompletableFuture<String> first = singleFlight.execute("STS-1", () -> read);
+		CompletableFuture<String> second = singleFlight.execute("STS-1", () -> read);
+
+		read.completeExceptionally(new IllegalStateException("read failed"));
+
+		assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void completedAndForgottenCallsAreNotJoined() throws Exception {
+		singleFlight.execute("STS-1", () -> CompletableFuture.completedFuture("before")).get();
+		assertThat(singleFlight.execute("STS-1", () -> CompletableFuture.completedFuture("after")).get())
+				.isEqualTo("after");
+
+		CompletableFuture<String> staleRead = new CompletableFuture<>();
+		CompletableFuture<String> waiting = singleFlight.execute("STS-2", () -> staleRead);
+
+		singleFlight.forget("STS-2");
+		CompletableFuture<String> afterWrite = singleFlight.execute("STS-2",
+				() -> CompletableFuture.completedFuture("written"));
+
+		staleRead.complete("stale");
+
+		assertThat(afterWrite.get()).isEqualTo("written");
+		assertThat(waiting.get()).isEqualTo("stale");
+		assertThat(meterRegistry.get("singleflight.in_flight").gauge().value()).isZero();
+	}
+}
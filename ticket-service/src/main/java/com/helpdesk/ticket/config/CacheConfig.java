@@ -0,0 +1,40 @@
+package com.helpdesk.ticket.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Configuration
+public class CacheConfig {
+
+    // Read-through cache for TicketRepository.findById; max-size 0 disables it
+    @Bean
+    public Cache<String, Ticket> ticketCache(
+            @Value("${cache.tickets.max-size:10000}") long maxSize,
+            @Value("${cache.tickets.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        Cache<String, Ticket> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "tickets");
+    }
+
+    // Concurrent cache misses for one ticket share a single Firestore read
+    @Bean
+    public SingleFlight<String, Optional<Ticket>> ticketReads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("ticket-reads", meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.helpdesk.ticket.config;
+
+import com.helpdesk.ticket.util.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+// Applies ?fields= to the serialized response, so unselected properties are left out instead of
+// being written as nulls. Unknown names were already rejected by the service that parsed them.
+@RestControllerAdvice
+public class FieldSelectionResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        FieldSelection selection = FieldSelection.parseUnchecked(
+                servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER));
+        if (!selection.isAll()) {
+            bodyContainer.setFilters(selection.filterProvider());
+        }
+    }
+}
@@ -15,6 +15,10 @@ public class SlaConfig {
 
     private Map<String, Integer> hours = new HashMap<>();
 
+    private Report report = new Report();
+
+    private Sweeper sweeper = new Sweeper();
+
     public int getHoursForPriority(TicketPriority priority) {
         return hours.getOrDefault(priority.name(), getDefaultHours(priority));
     }
@@ -26,4 +30,18 @@ public class SlaConfig {
             case LOW -> 168;
         };
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class Report {
+        // When false, every report is recomputed from count() aggregations and slaDueDate range
+        // queries instead of the in-memory deadline index
+        private boolean incremental = true;
+    }
+
+    // The interval is bound by SlaSweeper's @Scheduled from sla.sweeper.interval-ms
+    @Data
+    public static class Sweeper {
+        private boolean enabled = true;
+        private int batchSize = 500;
+    }
+}
@@ -1,10 +1,18 @@
 package com.helpdesk.ticket.controller;
 
 import com.helpdesk.ticket.dto.ApiResponse;
+import com.helpdesk.ticket.dto.BulkImportResponse;
 import com.helpdesk.ticket.dto.CreateTicketRequest;
+import com.helpdesk.ticket.dto.TicketBatchRequest;
+import com.helpdesk.ticket.dto.UpdateTicketRequest;
+import com.helpdesk.ticket.exception.InvalidRequestException;
 import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.model.TicketCategory;
 import com.helpdesk.ticket.model.TicketPriority;
+import com.helpdesk.ticket.service.SlaReportEngine;
 import com.helpdesk.ticket.service.SlaService;
+import com.helpdesk.ticket.service.TicketExportService;
+import com.helpdesk.ticket.service.TicketImportService;
 import com.helpdesk.ticket.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,14 +20,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.helpdesk.ticket.dto.SlaReportResponse;
 import com.helpdesk.ticket.dto.SlaStatusResponse;
-import java.time.Duration;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -30,176 +42,282 @@ public class TicketController {
 
     private final TicketService ticketService;
     private final SlaService slaService;
+    private final SlaReportEngine slaReportEngine;
+    private final TicketExportService ticketExportService;
+    private final TicketImportService ticketImportService;
 
     @PostMapping("/create")
     @Operation(summary = "Create a new ticket", description = "Creates a new IT helpdesk ticket")
-    public ResponseEntity<ApiResponse<Ticket>> createTicket(
+    public CompletableFuture<ResponseEntity<ApiResponse<Ticket>>> createTicket(
             @Valid @RequestBody CreateTicketRequest request) {
 
         log.info("Received request to create ticket for employee: {}", request.getEmployeeId());
 
-        Ticket ticket = ticketService.createTicket(request);
+        return ticketService.createTicket(request).thenApply(ticket -> {
+            ApiResponse<Ticket> response = ApiResponse.success(
+                    "Ticket created successfully",
+                    ticket
+            );
 
-        ApiResponse<Ticket> response = ApiResponse.success(
-                "Ticket created successfully",
-                ticket
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import tickets", description = "Creates tickets from an NDJSON body, one CreateTicketRequest per line")
+    public ResponseEntity<ApiResponse<BulkImportResponse>> importTickets(InputStream body) {
+
+        log.info("Received request to bulk import tickets");
+
+        BulkImportResponse result = ticketImportService.importNdjson(body);
+
+        ApiResponse<BulkImportResponse> response = ApiResponse.success(
+                String.format("Imported %d of %d ticket(s)", result.getImportedCount(), result.getTotalRecords()),
+                result
         );
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get tickets by ID", description = "Retrieves up to 500 tickets in one request; unknown IDs are omitted")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getTicketsByIds(
+            @Valid @RequestBody TicketBatchRequest request) {
+
+        log.info("Received request to fetch {} ticket(s) by ID", request.getTicketIds().size());
+
+        return ticketService.getTicketsByIds(request.getTicketIds()).thenApply(tickets -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    "Tickets retrieved successfully",
+                    tickets
+            );
+
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/{ticketId}")
     @Operation(summary = "Get ticket by ID", description = "Retrieves a specific ticket by its ID")
-    public ResponseEntity<ApiResponse<Ticket>> getTicketById(
+    public CompletableFuture<ResponseEntity<ApiResponse<Ticket>>> getTicketById(
             @Parameter(description = "Ticket ID", example = "TKT-1737456789012")
             @PathVariable String ticketId) {
 
         log.info("Received request to fetch ticket: {}", ticketId);
 
-        Ticket ticket = ticketService.getTicketById(ticketId);
+        return ticketService.getTicketById(ticketId).thenApply(ticket -> {
+            ApiResponse<Ticket> response = ApiResponse.success(
+                    "Ticket retrieved successfully",
+                    ticket
+            );
 
-        ApiResponse<Ticket> response = ApiResponse.success(
-                "Ticket retrieved successfully",
-                ticket
-        );
+            return ResponseEntity.ok().eTag(ticket.getVersion()).body(response);
+        });
+    }
 
-        return ResponseEntity.ok(response);
+    @PatchMapping("/{ticketId}")
+    @Operation(summary = "Update ticket fields",
+            description = "Writes only the fields present in the body; send the ETag from GET as If-Match to reject concurrent changes")
+    public CompletableFuture<ResponseEntity<ApiResponse<Ticket>>> updateTicket(
+            @Parameter(description = "Ticket ID", example = "TKT-1737456789012")
+            @PathVariable String ticketId,
+            @Parameter(description = "ETag of the version the change is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateTicketRequest request) {
+
+        log.info("Received request to update ticket: {}", ticketId);
+
+        return ticketService.updateTicket(ticketId, request, versionFromIfMatch(ifMatch)).thenApply(ticket -> {
+            ApiResponse<Ticket> response = ApiResponse.success(
+                    "Ticket updated successfully",
+                    ticket
+            );
+
+            return ResponseEntity.ok().eTag(ticket.getVersion()).body(response);
+        });
     }
 
     @GetMapping("/employee/{employeeId}")
-    @Operation(summary = "Get tickets by employee ID", description = "Retrieves all tickets for a specific employee")
-    public ResponseEntity<ApiResponse<List<Ticket>>> getTicketsByEmployeeId(
+    @Operation(summary = "Get tickets by employee ID", description = "Retrieves one page of tickets for a specific employee")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getTicketsByEmployeeId(
             @Parameter(description = "Employee ID", example = "EMP001")
-            @PathVariable String employeeId) {
+            @PathVariable String employeeId,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Continuation token returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Comma-separated properties to return, e.g. ticketId,priority,slaDueDate")
+            @RequestParam(required = false) String fields) {
 
         log.info("Received request to fetch tickets for employee: {}", employeeId);
 
-        List<Ticket> tickets = ticketService.getTicketsByEmployeeId(employeeId);
+        return ticketService.getTicketsByEmployeeId(employeeId, limit, cursor, fields).thenApply(page -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    String.format("Found %d ticket(s) for employee", page.items().size()),
+                    page.items(),
+                    page.nextCursor()
+            );
 
-        ApiResponse<List<Ticket>> response = ApiResponse.success(
-                String.format("Found %d ticket(s) for employee", tickets.size()),
-                tickets
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/priority/{priority}")
-    @Operation(summary = "Get tickets by priority", description = "Retrieves all tickets with a specific priority level")
-    public ResponseEntity<ApiResponse<List<Ticket>>> getTicketsByPriority(
+    @Operation(summary = "Get tickets by priority", description = "Retrieves one page of tickets with a specific priority level")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getTicketsByPriority(
             @Parameter(description = "Priority level", example = "HIGH")
-            @PathVariable TicketPriority priority) {
+            @PathVariable TicketPriority priority,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Continuation token returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Comma-separated properties to return, e.g. ticketId,priority,slaDueDate")
+            @RequestParam(required = false) String fields) {
 
         log.info("Received request to fetch tickets with priority: {}", priority);
 
-        List<Ticket> tickets = ticketService.getTicketsByPriority(priority);
+        return ticketService.getTicketsByPriority(priority, limit, cursor, fields).thenApply(page -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    String.format("Found %d ticket(s) with priority %s", page.items().size(), priority),
+                    page.items(),
+                    page.nextCursor()
+            );
 
-        ApiResponse<List<Ticket>> response = ApiResponse.success(
-                String.format("Found %d ticket(s) with priority %s", tickets.size(), priority),
-                tickets
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/all")
-    @Operation(summary = "Get all tickets", description = "Retrieves all tickets in the system")
-    public ResponseEntity<ApiResponse<List<Ticket>>> getAllTickets() {
+    @Operation(summary = "Get all tickets", description = "Retrieves one page of all tickets in the system")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getAllTickets(
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Continuation token returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Comma-separated properties to return, e.g. ticketId,priority,slaDueDate")
+            @RequestParam(required = false) String fields) {
 
         log.info("Received request to fetch all tickets");
 
-        List<Ticket> tickets = ticketService.getAllTickets();
+        return ticketService.getAllTickets(limit, cursor, fields).thenApply(page -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    String.format("Found %d ticket(s)", page.items().size()),
+                    page.items(),
+                    page.nextCursor()
+            );
 
-        ApiResponse<List<Ticket>> response = ApiResponse.success(
-                String.format("Found %d total ticket(s)", tickets.size()),
-                tickets
-        );
+            return ResponseEntity.ok(response);
+        });
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/count")
+    @Operation(summary = "Count tickets", description = "Counts tickets matching the given filters with a server-side aggregation")
+    public CompletableFuture<ResponseEntity<ApiResponse<Long>>> countTickets(
+            @Parameter(description = "Priority filter") @RequestParam(required = false) TicketPriority priority,
+            @Parameter(description = "Category filter") @RequestParam(required = false) TicketCategory category,
+            @Parameter(description = "SLA violated flag filter") @RequestParam(required = false) Boolean slaViolated) {
+
+        log.info("Received request to count tickets");
+
+        return ticketService.countTickets(priority, category, slaViolated).thenApply(count -> {
+            ApiResponse<Long> response = ApiResponse.success(
+                    "Tickets counted successfully",
+                    count
+            );
+
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all tickets", description = "Streams every ticket as NDJSON (default) or CSV for bulk extracts")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @Parameter(description = "Output format: ndjson or csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("Received request to export tickets as {}", format);
+
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = ticketExportService::writeCsv;
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tickets.csv")
+                    .body(body);
+        }
+
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+
+        StreamingResponseBody body = ticketExportService::writeNdjson;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tickets.ndjson")
+                .body(body);
     }
 
     @DeleteMapping("/{ticketId}")
     @Operation(summary = "Delete a ticket", description = "Deletes a ticket by its ID")
-    public ResponseEntity<ApiResponse<Void>> deleteTicket(
+    public CompletableFuture<ResponseEntity<ApiResponse<Void>>> deleteTicket(
             @Parameter(description = "Ticket ID", example = "TKT-1737456789012")
             @PathVariable String ticketId) {
 
         log.info("Received request to delete ticket: {}", ticketId);
 
-        ticketService.deleteTicket(ticketId);
+        return ticketService.deleteTicket(ticketId).thenApply(deleted -> {
+            ApiResponse<Void> response = ApiResponse.success(
+                    "Ticket deleted successfully",
+                    null
+            );
 
-        ApiResponse<Void> response = ApiResponse.success(
-                "Ticket deleted successfully",
-                null
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/sla/violated")
     @Operation(summary = "Get SLA violated tickets", description = "Retrieves all tickets that violated SLA")
-    public ResponseEntity<ApiResponse<List<Ticket>>> getSlaViolatedTickets() {
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getSlaViolatedTickets() {
 
         log.info("Received request to fetch SLA violated tickets");
 
-        List<Ticket> tickets = ticketService.getSlaViolatedTickets();
+        return ticketService.getSlaViolatedTickets().thenApply(tickets -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    String.format("Found %d SLA violated ticket(s)", tickets.size()),
+                    tickets
+            );
 
-        ApiResponse<List<Ticket>> response = ApiResponse.success(
-                String.format("Found %d SLA violated ticket(s)", tickets.size()),
-                tickets
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/sla/critical")
     @Operation(summary = "Get critical tickets", description = "Retrieves tickets at risk of SLA violation (less than 2 hours)")
-    public ResponseEntity<ApiResponse<List<Ticket>>> getCriticalTickets() {
+    public CompletableFuture<ResponseEntity<ApiResponse<List<Ticket>>>> getCriticalTickets() {
 
         log.info("Received request to fetch critical tickets");
 
-        List<Ticket> tickets = ticketService.getCriticalTickets();
+        return ticketService.getCriticalTickets().thenApply(tickets -> {
+            ApiResponse<List<Ticket>> response = ApiResponse.success(
+                    String.format("Found %d critical ticket(s)", tickets.size()),
+                    tickets
+            );
 
-        ApiResponse<List<Ticket>> response = ApiResponse.success(
-                String.format("Found %d critical ticket(s)", tickets.size()),
-                tickets
-        );
-
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/sla/report")
     @Operation(summary = "Get SLA report", description = "Retrieves comprehensive SLA compliance report")
-    public ResponseEntity<ApiResponse<SlaReportResponse>> getSlaReport() {
-
-        log.info("Received request to generate SLA report");
+    public ResponseEntity<ApiResponse<SlaReportResponse>> getSlaReport(
+            @Parameter(description = "Force a full recompute instead of using the incremental counters")
+            @RequestParam(defaultValue = "false") boolean recompute,
+            @Parameter(description = "Include the violated and critical ticket lists; counts alone are much cheaper to recompute")
+            @RequestParam(defaultValue = "true") boolean includeTickets) {
 
-        List<Ticket> allTickets = ticketService.getAllTickets();
-        List<Ticket> violatedTickets = ticketService.getSlaViolatedTickets();
-        List<Ticket> criticalTickets = ticketService.getCriticalTickets();
+        log.info("Received request to generate SLA report (recompute: {}, includeTickets: {})", recompute, includeTickets);
 
-        // Build SLA status responses
-        List<SlaStatusResponse> violatedResponses = violatedTickets.stream()
-                .map(this::buildSlaStatus)
-                .toList();
-
-        List<SlaStatusResponse> criticalResponses = criticalTickets.stream()
-                .map(this::buildSlaStatus)
-                .toList();
-
-        int onTrackCount = allTickets.size() - violatedTickets.size() - criticalTickets.size();
-        double violationRate = allTickets.isEmpty() ? 0 :
-                (double) violatedTickets.size() / allTickets.size() * 100;
-
-        SlaReportResponse report = SlaReportResponse.builder()
-                .totalTickets(allTickets.size())
-                .violatedCount(violatedTickets.size())
-                .criticalCount(criticalTickets.size())
-                .onTrackCount(Math.max(0, onTrackCount))
-                .violationRate(violationRate)
-                .violatedTickets(violatedResponses)
-                .criticalTickets(criticalResponses)
-                .build();
+        SlaReportResponse report = slaReportEngine.generateReport(recompute, includeTickets);
 
         ApiResponse<SlaReportResponse> response = ApiResponse.success(
                 "SLA report generated successfully",
@@ -211,36 +329,36 @@ public class TicketController {
 
     @GetMapping("/{ticketId}/sla")
     @Operation(summary = "Get ticket SLA status", description = "Get detailed SLA status for a specific ticket")
-    public ResponseEntity<ApiResponse<SlaStatusResponse>> getTicketSlaStatus(
+    public CompletableFuture<ResponseEntity<ApiResponse<SlaStatusResponse>>> getTicketSlaStatus(
             @PathVariable String ticketId) {
 
         log.info("Received request to fetch SLA status for ticket: {}", ticketId);
 
-        Ticket ticket = ticketService.getTicketById(ticketId);
-        SlaStatusResponse slaStatus = buildSlaStatus(ticket);
+        return ticketService.getTicketById(ticketId).thenApply(ticket -> {
+            SlaStatusResponse slaStatus = slaService.buildSlaStatus(ticket);
 
-        ApiResponse<SlaStatusResponse> response = ApiResponse.success(
-                "SLA status retrieved successfully",
-                slaStatus
-        );
+            ApiResponse<SlaStatusResponse> response = ApiResponse.success(
+                    "SLA status retrieved successfully",
+                    slaStatus
+            );
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
-    // Helper method to build SLA status
-    private SlaStatusResponse buildSlaStatus(Ticket ticket) {
-        Duration remaining = slaService.getRemainingTime(ticket);
-
-        return SlaStatusResponse.builder()
-                .ticketId(ticket.getTicketId())
-                .createdAt(ticket.getCreatedAt())
-                .slaDueDate(ticket.getSlaDueDate())
-                .slaViolated(ticket.isSlaViolated())
-                .slaViolatedAt(ticket.getSlaViolatedAt())
-                .slaStatus(slaService.getSlaStatusMessage(ticket))
-                .remainingHours(remaining.toHours())
-                .remainingMinutes(remaining.toMinutesPart())
-                .critical(slaService.isCritical(ticket))
-                .build();
+    // "*" only asks for an existing ticket, which update() requires anyway
+    private String versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String version = ifMatch.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        if (version.length() >= 2 && version.startsWith("\"") && version.endsWith("\"")) {
+            version = version.substring(1, version.length() - 1);
+        }
+        return version;
     }
-}
\ No newline at end of file
+}
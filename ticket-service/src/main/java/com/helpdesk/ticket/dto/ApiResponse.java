@@ -24,6 +24,9 @@ public class ApiResponse<T> {
 
     private String error;
 
+    // Continuation token for paginated list endpoints; omitted on the last page
+    private String nextCursor;
+
     public static <T> ApiResponse<T> success(String message, T data) {
         return ApiResponse.<T>builder()
                 .success(true)
@@ -33,6 +36,16 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> success(String message, T data, String nextCursor) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .nextCursor(nextCursor)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     public static <T> ApiResponse<T> error(String message, String error) {
         return ApiResponse.<T>builder()
                 .success(false)
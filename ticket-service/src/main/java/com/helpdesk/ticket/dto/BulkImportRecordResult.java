@@ -0,0 +1,19 @@
+package com.helpdesk.ticket.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportRecordResult {
+    private long line;
+    private boolean success;
+    private String ticketId;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.helpdesk.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+    private long totalRecords;
+    private long importedCount;
+    private long failedCount;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    private List<BulkImportRecordResult> results;
+}
@@ -0,0 +1,20 @@
+package com.helpdesk.ticket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchRequest {
+
+    @NotEmpty(message = "At least one ticket ID is required")
+    private List<@NotBlank(message = "Ticket IDs must not be blank") String> ticketIds;
+}
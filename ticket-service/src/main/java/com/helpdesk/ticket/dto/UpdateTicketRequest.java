@@ -0,0 +1,27 @@
+package com.helpdesk.ticket.dto;
+
+import com.helpdesk.ticket.model.TicketCategory;
+import com.helpdesk.ticket.model.TicketPriority;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Every field is optional; only the ones present are changed
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateTicketRequest {
+
+    @Size(min = 2, max = 100, message = "Employee name must be between 2 and 100 characters")
+    private String employeeName;
+
+    private TicketCategory category;
+
+    @Size(min = 10, max = 500, message = "Description must be between 10 and 500 characters")
+    private String description;
+
+    private TicketPriority priority;
+}
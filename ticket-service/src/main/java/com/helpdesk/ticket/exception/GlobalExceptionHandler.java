@@ -2,8 +2,10 @@ package com.helpdesk.ticket.exception;
 
 import com.helpdesk.ticket.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -28,6 +30,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(TicketVersionConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleVersionConflict(TicketVersionConflictException ex) {
+        log.warn("Conditional update rejected: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "Ticket was modified",
+                ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
     @ExceptionHandler(TicketServiceException.class)
     public ResponseEntity<ApiResponse<Object>> handleTicketServiceException(TicketServiceException ex) {
         log.error("Service error: {}", ex.getMessage(), ex);
@@ -40,6 +54,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<ApiResponse<Object>> handleBadCredentials(BadCredentialsException ex) {
+        log.warn("Login failed: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "Login failed",
+                ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        log.warn("Request shed: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "Service temporarily unavailable",
+                ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Object>> handleInvalidRequest(InvalidRequestException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "Invalid request",
+                ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
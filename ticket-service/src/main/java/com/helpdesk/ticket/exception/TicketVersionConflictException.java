@@ -0,0 +1,7 @@
+package com.helpdesk.ticket.exception;
+
+public class TicketVersionConflictException extends RuntimeException {
+    public TicketVersionConflictException(String message) {
+        super(message);
+    }
+}
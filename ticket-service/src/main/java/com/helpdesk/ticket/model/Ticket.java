@@ -1,6 +1,9 @@
 package com.helpdesk.ticket.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.cloud.firestore.annotation.DocumentId;
+import com.helpdesk.ticket.util.FieldSelection;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,11 +12,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@JsonFilter(FieldSelection.FILTER_ID)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ticket {
 
+    public static final String ID_PREFIX = "TKT-";
+
     @DocumentId
     private String ticketId;
 
@@ -29,9 +35,9 @@ public class Ticket {
     private boolean slaViolated;
     private LocalDateTime slaViolatedAt;
 
-    public static String generateTicketId() {
-        return "TKT-" + System.currentTimeMillis();
-    }
+    // Update time of the stored document; sent as the ETag and checked by conditional updates
+    @JsonIgnore
+    private String version;
 
     public boolean isOverdue() {
         if (slaDueDate == null) {
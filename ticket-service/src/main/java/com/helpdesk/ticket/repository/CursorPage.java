@@ -0,0 +1,6 @@
+package com.helpdesk.ticket.repository;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,29 @@
+package com.helpdesk.ticket.repository;
+
+final class DocumentKeys {
+
+    private DocumentKeys() {
+    }
+
+    // Storage key for a public ID: a 4-hex-digit hash prefix spreads sequential IDs across
+    // the key space, and because it is derived from the ID a lookup is still a single get.
+    static String storageKey(String publicId) {
+        // The extra 0x10000 bit keeps leading zeros, and is dropped again by substring(1)
+        String prefix = Integer.toHexString((mix(publicId.hashCode()) & 0xffff) | 0x10000).substring(1);
+        return prefix + "_" + publicId;
+    }
+
+    static boolean isStorageKey(String documentId, String publicId) {
+        return documentId.equals(storageKey(publicId));
+    }
+
+    // Murmur3 finalizer, so IDs that differ only in their last digits land far apart
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
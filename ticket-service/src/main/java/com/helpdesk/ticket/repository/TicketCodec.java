@@ -0,0 +1,110 @@
+package com.helpdesk.ticket.repository;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.model.TicketCategory;
+import com.helpdesk.ticket.model.TicketPriority;
+import com.helpdesk.ticket.util.TimeConversions;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Maps tickets to and from Firestore documents. Each field is read from the snapshot once, enums
+// resolve through prebuilt tables, timestamps convert from the stored Timestamp's epoch seconds
+// instead of going through getDate, and the write map is sized up front for every field.
+final class TicketCodec {
+
+    // Holds all 11 ticket fields under the default load factor without resizing
+    private static final int MAP_CAPACITY = 16;
+
+    private static final Map<String, TicketCategory> CATEGORIES = lookupTable(TicketCategory.values());
+    private static final Map<String, TicketPriority> PRIORITIES = lookupTable(TicketPriority.values());
+
+    private TicketCodec() {
+    }
+
+    // The document ID is a storage key; the public ticket ID lives in the ticketId field.
+    // Projected reads leave out fields, so every field is optional here.
+    static Ticket decode(DocumentSnapshot document) {
+        String ticketId = document.getString("ticketId");
+        Boolean slaViolated = document.getBoolean("slaViolated");
+
+        return Ticket.builder()
+                .ticketId(ticketId != null ? ticketId : document.getId())
+                .employeeId(document.getString("employeeId"))
+                .employeeName(document.getString("employeeName"))
+                .category(category(document.getString("category")))
+                .description(document.getString("description"))
+                .priority(priority(document.getString("priority")))
+                .createdAt(TimeConversions.toLocalDateTime(document.getTimestamp("createdAt")))
+                .createdBy(document.getString("createdBy"))
+                .slaDueDate(TimeConversions.toLocalDateTime(document.getTimestamp("slaDueDate")))
+                .slaViolated(slaViolated != null && slaViolated)
+                .slaViolatedAt(TimeConversions.toLocalDateTime(document.getTimestamp("slaViolatedAt")))
+                .version(document.getUpdateTime() != null ? document.getUpdateTime().toString() : null)
+                .build();
+    }
+
+    static Map<String, Object> encode(Ticket ticket) {
+        Map<String, Object> map = new HashMap<>(MAP_CAPACITY);
+        map.put("ticketId", ticket.getTicketId());
+        map.put("employeeId", ticket.getEmployeeId());
+        map.put("employeeName", ticket.getEmployeeName());
+        map.put("category", ticket.getCategory().name());
+        map.put("description", ticket.getDescription());
+        map.put("priority", ticket.getPriority().name());
+        map.put("createdAt", TimeConversions.toDate(ticket.getCreatedAt()));
+        map.put("createdBy", ticket.getCreatedBy());
+
+        if (ticket.getSlaDueDate() != null) {
+            map.put("slaDueDate", TimeConversions.toDate(ticket.getSlaDueDate()));
+        }
+        map.put("slaViolated", ticket.isSlaViolated());
+        if (ticket.getSlaViolatedAt() != null) {
+            map.put("slaViolatedAt", TimeConversions.toDate(ticket.getSlaViolatedAt()));
+        }
+
+        return map;
+    }
+
+    // A field mask for update(): only the named fields are written, and named fields the ticket
+    // has no value for are deleted from the document
+    static Map<String, Object> encodeFields(Ticket ticket, Collection<String> fields) {
+        Map<String, Object> map = encode(ticket);
+        map.keySet().retainAll(fields);
+        for (String field : fields) {
+            map.putIfAbsent(field, FieldValue.delete());
+        }
+        return map;
+    }
+
+    static TicketCategory category(String name) {
+        return resolve(CATEGORIES, name, "ticket category");
+    }
+
+    static TicketPriority priority(String name) {
+        return resolve(PRIORITIES, name, "ticket priority");
+    }
+
+    private static <E extends Enum<E>> E resolve(Map<String, E> table, String name, String description) {
+        if (name == null) {
+            return null;
+        }
+
+        E value = table.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown " + description + ": " + name);
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> Map<String, E> lookupTable(E[] values) {
+        Map<String, E> table = new HashMap<>(values.length * 2);
+        for (E value : values) {
+            table.put(value.name(), value);
+        }
+        return Map.copyOf(table);
+    }
+}
@@ -1,215 +1,757 @@
 package com.helpdesk.ticket.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
+import com.helpdesk.ticket.exception.InvalidRequestException;
 import com.helpdesk.ticket.exception.TicketServiceException;
+import com.helpdesk.ticket.exception.TicketVersionConflictException;
 import com.helpdesk.ticket.model.Ticket;
 import com.helpdesk.ticket.model.TicketCategory;
 import com.helpdesk.ticket.model.TicketPriority;
+import com.helpdesk.ticket.util.FieldSelection;
+import com.helpdesk.ticket.util.SingleFlight;
+import com.helpdesk.ticket.util.TimeConversions;
+import com.helpdesk.ticket.util.WriteGenerations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class TicketRepository {
 
+    private static final int GET_ALL_CHUNK_SIZE = 100;
+
+    // Properties accepted by ?fields=; "overdue" is derived from slaDueDate
+    public static final Set<String> SELECTABLE_FIELDS = Set.of("ticketId", "employeeId", "employeeName",
+            "category", "description", "priority", "createdAt", "createdBy", "slaDueDate", "slaViolated",
+            "slaViolatedAt", "overdue");
+
     private final Firestore firestore;
+    private final Cache<String, Ticket> ticketCache;
+    private final SingleFlight<String, Optional<Ticket>> ticketReads;
+    private final WriteGenerations writeGenerations = new WriteGenerations();
 
     @Value("${firestore.collection.tickets}")
     private String collectionName;
 
+    // While true, documents still stored under their plain ticket ID are found as well
+    @Value("${storage-keys.legacy-fallback:true}")
+    private boolean legacyFallback;
+
 
-    public Ticket save(Ticket ticket) {
+    public List<Ticket> findAllById(Collection<String> ticketIds) {
         try {
-            log.info("Saving ticket: {}", ticket.getTicketId());
+            return findAllByIdAsync(ticketIds).get();
+        } catch (InterruptedException | ExecutionException e) {
+            log.error("Error finding tickets by ID: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new TicketServiceException("Failed to find tickets", e);
+        }
+    }
 
-            DocumentReference docRef = firestore.collection(collectionName)
-                    .document(ticket.getTicketId());
+    // Just the fields the SLA deadline index keeps, so loading it does not read whole tickets
+    public List<Ticket> findAllSlaDeadlines() {
+        Query query = firestore.collection(collectionName)
+                .select("ticketId", "slaDueDate", "slaViolated");
 
-            ApiFuture<WriteResult> result = docRef.set(convertToMap(ticket));
+        return findTickets(query, "Failed to load SLA deadlines");
+    }
 
-            WriteResult writeResult = result.get();
-            log.info("Ticket saved successfully at: {}", writeResult.getUpdateTime());
+    // Tickets whose SLA deadline is strictly before dueBefore, earliest first. The predicate runs
+    // in Firestore, so only overdue tickets are transferred.
+    public List<Ticket> findSlaDueBefore(LocalDateTime dueBefore) {
+        Query query = firestore.collection(collectionName)
+                .whereLessThan("slaDueDate", TimeConversions.toDate(dueBefore))
+                .orderBy("slaDueDate");
+
+        return findTickets(query, "Failed to find overdue tickets");
+    }
+
+    // Unflagged tickets due in [from, to), earliest first; uses the (slaViolated, slaDueDate)
+    // composite index from firestore.indexes.json
+    public List<Ticket> findUnviolatedSlaDueBetween(LocalDateTime from, LocalDateTime to) {
+        Query query = firestore.collection(collectionName)
+                .whereEqualTo("slaViolated", false)
+                .whereGreaterThanOrEqualTo("slaDueDate", TimeConversions.toDate(from))
+                .whereLessThan("slaDueDate", TimeConversions.toDate(to))
+                .orderBy("slaDueDate");
+
+        return findTickets(query, "Failed to find tickets due");
+    }
+
+    public CompletableFuture<List<Ticket>> findSlaDueBeforeAsync(LocalDateTime dueBefore) {
+        Query query = firestore.collection(collectionName)
+                .whereLessThan("slaDueDate", TimeConversions.toDate(dueBefore))
+                .orderBy("slaDueDate");
+
+        return findTicketsAsync(query, "Failed to find overdue tickets");
+    }
+
+    public CompletableFuture<List<Ticket>> findUnviolatedSlaDueBetweenAsync(LocalDateTime from, LocalDateTime to) {
+        Query query = firestore.collection(collectionName)
+                .whereEqualTo("slaViolated", false)
+                .whereGreaterThanOrEqualTo("slaDueDate", TimeConversions.toDate(from))
+                .whereLessThan("slaDueDate", TimeConversions.toDate(to))
+                .orderBy("slaDueDate");
+
+        return findTicketsAsync(query, "Failed to find tickets due");
+    }
 
-            return ticket;
+    private CompletableFuture<List<Ticket>> findTicketsAsync(Query query, String errorMessage) {
+        return FirestoreFutures.toCompletableFuture(query.get(), errorMessage).thenApply(this::toTickets);
+    }
+
+    private List<Ticket> findTickets(Query query, String errorMessage) {
+        try {
+            List<Ticket> tickets = toTickets(query.get().get());
+            log.info("Found {} ticket(s)", tickets.size());
+            return tickets;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error saving ticket: {}", e.getMessage(), e);
+            log.error("Error finding tickets: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to save ticket", e);
+            throw new TicketServiceException(errorMessage, e);
         }
     }
 
+    // Server-side count() aggregations: one round trip and no documents transferred, whatever the
+    // number of matching tickets. Tickets without an SLA due date are not part of SLA reports.
+    public long countWithSlaDueDate() {
+        Query query = firestore.collection(collectionName).whereNotEqualTo("slaDueDate", null);
 
-    public Optional<Ticket> findById(String ticketId) {
-        try {
-            log.info("Finding ticket by ID: {}", ticketId);
+        return aggregate(query, "Failed to count tickets with an SLA");
+    }
 
-            DocumentReference docRef = firestore.collection(collectionName).document(ticketId);
-            ApiFuture<DocumentSnapshot> future = docRef.get();
-            DocumentSnapshot document = future.get();
+    public long countSlaDueBefore(LocalDateTime dueBefore) {
+        Query query = firestore.collection(collectionName)
+                .whereLessThan("slaDueDate", TimeConversions.toDate(dueBefore));
 
-            if (document.exists()) {
-                Ticket ticket = documentToTicket(document);
-                log.info("Ticket found: {}", ticketId);
-                return Optional.of(ticket);
-            }
+        return aggregate(query, "Failed to count overdue tickets");
+    }
+
+    // Tickets due in [from, to)
+    public long countSlaDueBetween(LocalDateTime from, LocalDateTime to) {
+        Query query = firestore.collection(collectionName)
+                .whereGreaterThanOrEqualTo("slaDueDate", TimeConversions.toDate(from))
+                .whereLessThan("slaDueDate", TimeConversions.toDate(to));
 
-            log.warn("Ticket not found: {}", ticketId);
-            return Optional.empty();
+        return aggregate(query, "Failed to count tickets due");
+    }
 
+    private long aggregate(Query query, String errorMessage) {
+        try {
+            long count = query.count().get().get().getCount();
+            log.info("Counted {} ticket(s)", count);
+            return count;
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding ticket: {}", e.getMessage(), e);
+            log.error("Error counting tickets: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to find ticket", e);
+            throw new TicketServiceException(errorMessage, e);
+        }
+    }
+
+    private Query countQuery(TicketPriority priority, TicketCategory category, Boolean slaViolated) {
+        Query query = firestore.collection(collectionName);
+        if (priority != null) {
+            query = query.whereEqualTo("priority", priority.name());
+        }
+        if (category != null) {
+            query = query.whereEqualTo("category", category.name());
+        }
+        if (slaViolated != null) {
+            query = query.whereEqualTo("slaViolated", slaViolated);
+        }
+        return query;
+    }
+
+    private Query pageQuery(Query query, int limit, String cursor) {
+        Query pageQuery = query.orderBy(FieldPath.documentId()).limit(limit + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            pageQuery = pageQuery.startAfter(decodeCursor(cursor));
+        }
+        return pageQuery;
+    }
+
+    private CursorPage<Ticket> toPage(List<QueryDocumentSnapshot> documents, int limit) {
+        List<Ticket> tickets = new ArrayList<>();
+
+        for (QueryDocumentSnapshot document : documents.subList(0, Math.min(limit, documents.size()))) {
+            tickets.add(TicketCodec.decode(document));
         }
+
+        String nextCursor = documents.size() > limit
+                ? encodeCursor(documents.get(limit - 1).getId())
+                : null;
+
+        log.info("Found {} tickets in page (more: {})", tickets.size(), nextCursor != null);
+        return new CursorPage<>(tickets, nextCursor);
     }
 
-    public List<Ticket> findByEmployeeId(String employeeId) {
+
+    // Non-blocking variants: the request thread is released while the Firestore call is in flight
+
+    public CompletableFuture<Ticket> saveAsync(Ticket ticket) {
+        log.info("Saving ticket asynchronously: {}", ticket.getTicketId());
+
+        DocumentReference docRef = documentRef(ticket.getTicketId());
+
+        return FirestoreFutures.toCompletableFuture(docRef.set(TicketCodec.encode(ticket)), "Failed to save ticket")
+                .thenApply(writeResult -> {
+                    log.info("Ticket saved successfully at: {}", writeResult.getUpdateTime());
+                    ticket.setVersion(writeResult.getUpdateTime().toString());
+                    cacheWritten(ticket);
+                    return ticket;
+                });
+    }
+
+    // Writes only the named fields with update(), which fails for a deleted ticket instead of
+    // recreating it. With an expected version the write also fails unless the document is
+    // unchanged since that version was read. Completes with the new version, or empty if the
+    // ticket does not exist.
+    public CompletableFuture<Optional<String>> updateAsync(Ticket ticket, Collection<String> fields,
+                                                           String expectedVersion) {
+        String ticketId = ticket.getTicketId();
+        log.info("Updating fields {} of ticket asynchronously: {}", fields, ticketId);
+
+        Map<String, Object> mask = TicketCodec.encodeFields(ticket, fields);
+        Precondition precondition = expectedVersion != null
+                ? Precondition.updatedAt(parseVersion(expectedVersion))
+                : Precondition.exists(true);
+
+        return FirestoreFutures.toCompletableFuture(documentRef(ticketId).update(mask, precondition),
+                        "Failed to update ticket")
+                .exceptionallyCompose(e -> legacyFallback && hasStatus(e, StatusCode.Code.NOT_FOUND)
+                        ? FirestoreFutures.toCompletableFuture(legacyDocumentRef(ticketId).update(mask, precondition),
+                                "Failed to update ticket")
+                        : CompletableFuture.<WriteResult>failedFuture(e))
+                .handle((writeResult, e) -> {
+                    // Cached copies are dropped rather than patched, so the next read sees the stored document
+                    invalidate(ticketId);
+
+                    if (e == null) {
+                        log.info("Ticket updated successfully at: {}", writeResult.getUpdateTime());
+                        return Optional.of(writeResult.getUpdateTime().toString());
+                    }
+                    if (hasStatus(e, StatusCode.Code.NOT_FOUND)) {
+                        log.warn("Ticket not found for update: {}", ticketId);
+                        return Optional.empty();
+                    }
+                    if (hasStatus(e, StatusCode.Code.FAILED_PRECONDITION)) {
+                        throw new TicketVersionConflictException("Ticket " + ticketId
+                                + " has changed since version " + expectedVersion);
+                    }
+                    throw e instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(e);
+                });
+    }
+
+    private Timestamp parseVersion(String version) {
         try {
-            log.info("Finding tickets for employee: {}", employeeId);
+            return Timestamp.parseTimestamp(version);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid ticket version: " + version);
+        }
+    }
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .whereEqualTo("employeeId", employeeId)
-                    .get();
+    private static boolean hasStatus(Throwable error, StatusCode.Code code) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                return apiException.getStatusCode().getCode() == code;
+            }
+        }
+        return false;
+    }
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<Ticket> tickets = new ArrayList<>();
+    public CompletableFuture<Optional<Ticket>> findByIdAsync(String ticketId) {
+        Ticket cached = ticketCache.getIfPresent(ticketId);
+        if (cached != null) {
+            log.debug("Ticket served from cache: {}", ticketId);
+            return CompletableFuture.completedFuture(Optional.of(cached.toBuilder().build()));
+        }
 
-            for (QueryDocumentSnapshot document : documents) {
-                tickets.add(documentToTicket(document));
+        // Every caller gets its own copy, since the read may be shared with concurrent callers
+        return ticketReads.execute(ticketId, () -> readByIdAsync(ticketId))
+                .thenApply(found -> found.map(ticket -> ticket.toBuilder().build()));
+    }
+
+    private CompletableFuture<Optional<Ticket>> readByIdAsync(String ticketId) {
+        log.info("Finding ticket by ID asynchronously: {}", ticketId);
+
+        long generation = writeGenerations.current(ticketId);
+        return FirestoreFutures.toCompletableFuture(documentRef(ticketId).get(), "Failed to find ticket")
+                .thenCompose(document -> document.exists() || !legacyFallback
+                        ? CompletableFuture.completedFuture(document)
+                        : FirestoreFutures.toCompletableFuture(legacyDocumentRef(ticketId).get(), "Failed to find ticket"))
+                .thenApply(document -> {
+                    if (!document.exists()) {
+                        log.warn("Ticket not found: {}", ticketId);
+                        return Optional.empty();
+                    }
+
+                    Ticket ticket = TicketCodec.decode(document);
+                    cacheRead(ticket, generation);
+                    return Optional.of(ticket);
+                });
+    }
+
+    // Multi-get in getAll chunks that are all in flight at once; cache hits skip Firestore.
+    // Tickets are returned in request order and unknown IDs are left out.
+    public CompletableFuture<List<Ticket>> findAllByIdAsync(Collection<String> ticketIds) {
+        log.info("Finding {} ticket(s) by ID asynchronously", ticketIds.size());
+
+        Map<String, Ticket> found = new ConcurrentHashMap<>();
+        List<String> misses = new ArrayList<>();
+        Map<String, Long> generations = new HashMap<>();
+
+        for (String ticketId : new LinkedHashSet<>(ticketIds)) {
+            Ticket cached = ticketCache.getIfPresent(ticketId);
+            if (cached != null) {
+                found.put(ticketId, cached.toBuilder().build());
+            } else {
+                misses.add(ticketId);
+                generations.put(ticketId, writeGenerations.current(ticketId));
             }
+        }
 
-            log.info("Found {} tickets for employee: {}", tickets.size(), employeeId);
-            return tickets;
+        return getAllInChunks(misses, this::documentRef, generations, found)
+                .thenCompose(done -> {
+                    if (!legacyFallback) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    List<String> unresolved = misses.stream().filter(id -> !found.containsKey(id)).toList();
+                    return getAllInChunks(unresolved, this::legacyDocumentRef, generations, found);
+                })
+                .thenApply(done -> {
+                    List<Ticket> tickets = new ArrayList<>();
+                    for (String ticketId : new LinkedHashSet<>(ticketIds)) {
+                        Ticket ticket = found.get(ticketId);
+                        if (ticket != null) {
+                            tickets.add(ticket);
+                        }
+                    }
+
+                    log.info("Found {} of {} requested ticket(s)", tickets.size(), ticketIds.size());
+                    return tickets;
+                });
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding tickets by employee: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to find tickets by employee", e);
+    private CompletableFuture<Void> getAllInChunks(List<String> ticketIds,
+                                                   Function<String, DocumentReference> refs,
+                                                   Map<String, Long> generations,
+                                                   Map<String, Ticket> found) {
+        List<CompletableFuture<Void>> reads = new ArrayList<>();
+
+        for (int from = 0; from < ticketIds.size(); from += GET_ALL_CHUNK_SIZE) {
+            DocumentReference[] chunk = ticketIds.subList(from, Math.min(from + GET_ALL_CHUNK_SIZE, ticketIds.size()))
+                    .stream()
+                    .map(refs)
+                    .toArray(DocumentReference[]::new);
+
+            reads.add(FirestoreFutures.toCompletableFuture(firestore.getAll(chunk), "Failed to find tickets")
+                    .thenAccept(snapshots -> {
+                        for (DocumentSnapshot snapshot : snapshots) {
+                            if (snapshot.exists()) {
+                                Ticket ticket = TicketCodec.decode(snapshot);
+                                Long generation = generations.get(ticket.getTicketId());
+                                if (generation != null) {
+                                    cacheRead(ticket, generation);
+                                }
+                                found.put(ticket.getTicketId(), ticket);
+                            }
+                        }
+                    }));
         }
+
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]));
+    }
+
+    public CompletableFuture<CursorPage<Ticket>> findPageAsync(int limit, String cursor, FieldSelection fields) {
+        log.info("Finding page of tickets asynchronously (limit: {})", limit);
+        return findPageAsync(firestore.collection(collectionName), limit, cursor, fields);
+    }
+
+    public CompletableFuture<CursorPage<Ticket>> findPageByEmployeeIdAsync(String employeeId, int limit, String cursor,
+                                                                         FieldSelection fields) {
+        log.info("Finding page of tickets for employee asynchronously: {} (limit: {})", employeeId, limit);
+        return findPageAsync(firestore.collection(collectionName).whereEqualTo("employeeId", employeeId),
+                limit, cursor, fields);
+    }
+
+    public CompletableFuture<CursorPage<Ticket>> findPageByPriorityAsync(TicketPriority priority, int limit, String cursor,
+                                                                       FieldSelection fields) {
+        log.info("Finding page of tickets with priority asynchronously: {} (limit: {})", priority, limit);
+        return findPageAsync(firestore.collection(collectionName).whereEqualTo("priority", priority.name()),
+                limit, cursor, fields);
     }
 
-    public List<Ticket> findByPriority(TicketPriority priority) {
+    private CompletableFuture<CursorPage<Ticket>> findPageAsync(Query query, int limit, String cursor,
+                                                                FieldSelection fields) {
+        return FirestoreFutures.toCompletableFuture(pageQuery(project(query, fields), limit, cursor).get(),
+                        "Failed to find tickets")
+                .thenApply(snapshot -> toPage(snapshot.getDocuments(), limit));
+    }
+
+    // Only the selected fields are transferred; partial tickets are never cached
+    private Query project(Query query, FieldSelection fields) {
+        if (fields.isAll()) {
+            return query;
+        }
+
+        Set<String> projected = new LinkedHashSet<>(fields.fields());
+        projected.remove("overdue");
+        projected.add("ticketId");
+        // SLA state is re-evaluated on read from the due date
+        if (fields.includesAny("slaViolated", "slaViolatedAt", "overdue")) {
+            projected.addAll(List.of("slaDueDate", "slaViolated", "slaViolatedAt"));
+        }
+
+        return query.select(projected.toArray(new String[0]));
+    }
+
+    public CompletableFuture<Long> countAsync(TicketPriority priority, TicketCategory category, Boolean slaViolated) {
+        log.info("Counting tickets asynchronously (priority: {}, category: {}, slaViolated: {})",
+                priority, category, slaViolated);
+
+        return FirestoreFutures.toCompletableFuture(countQuery(priority, category, slaViolated).count().get(),
+                        "Failed to count tickets")
+                .thenApply(AggregateQuerySnapshot::getCount);
+    }
+
+    public CompletableFuture<Void> deleteAsync(String ticketId) {
+        log.info("Deleting ticket asynchronously: {}", ticketId);
+
+        return FirestoreFutures.toCompletableFuture(deleteBatch(ticketId).commit(), "Failed to delete ticket")
+                .thenAccept(result -> {
+                    invalidate(ticketId);
+                    log.info("Ticket deleted: {}", ticketId);
+                });
+    }
+
+    private List<Ticket> toTickets(QuerySnapshot snapshot) {
+        List<Ticket> tickets = new ArrayList<>();
+
+        for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+            tickets.add(TicketCodec.decode(document));
+        }
+
+        log.info("Found {} tickets", tickets.size());
+        return tickets;
+    }
+
+
+    // Reads the whole collection in keyset-ordered chunks, fetching the next chunk while the
+    // current one is consumed; at most two chunks are held in memory at any time.
+    public long streamAll(int chunkSize, Consumer<Ticket> consumer) {
         try {
-            log.info("Finding tickets with priority: {}", priority);
+            log.info("Streaming all tickets in chunks of {}", chunkSize);
+
+            Query query = firestore.collection(collectionName)
+                    .orderBy(FieldPath.documentId())
+                    .limit(chunkSize);
+
+            List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+            long count = 0;
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName)
-                    .whereEqualTo("priority", priority.name())
-                    .get();
+            while (!documents.isEmpty()) {
+                ApiFuture<QuerySnapshot> next = documents.size() == chunkSize
+                        ? query.startAfter(documents.get(documents.size() - 1)).get()
+                        : null;
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<Ticket> tickets = new ArrayList<>();
+                for (QueryDocumentSnapshot document : documents) {
+                    consumer.accept(TicketCodec.decode(document));
+                }
+                count += documents.size();
 
-            for (QueryDocumentSnapshot document : documents) {
-                tickets.add(documentToTicket(document));
+                documents = next != null ? next.get().getDocuments() : List.of();
             }
 
-            log.info("Found {} tickets with priority: {}", tickets.size(), priority);
-            return tickets;
+            log.info("Streamed {} tickets", count);
+            return count;
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding tickets by priority: {}", e.getMessage(), e);
+            log.error("Error streaming tickets: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to find tickets by priority", e);
+            throw new TicketServiceException("Failed to stream tickets", e);
         }
     }
 
-    public List<Ticket> findAll() {
-        try {
-            log.info("Finding all tickets");
 
-            ApiFuture<QuerySnapshot> future = firestore.collection(collectionName).get();
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            List<Ticket> tickets = new ArrayList<>();
+    // Deletes the document under both keys, so a ticket that was never migrated is removed too
+    private WriteBatch deleteBatch(String ticketId) {
+        WriteBatch batch = firestore.batch();
+        batch.delete(documentRef(ticketId));
+        if (legacyFallback) {
+            batch.delete(legacyDocumentRef(ticketId));
+        }
+        return batch;
+    }
 
-            for (QueryDocumentSnapshot document : documents) {
-                tickets.add(documentToTicket(document));
-            }
 
-            log.info("Found {} total tickets", tickets.size());
-            return tickets;
+    // Only touches the two SLA fields; update() fails for deleted tickets instead of recreating them.
+    // The deadlines come from an in-memory index that may be behind: another replica can have
+    // moved a ticket to a later due date or reset its flag since. Each ticket is read first and
+    // only flagged if its stored due date still matches, with a precondition on that read's
+    // update time, so a concurrent change makes the write fail instead of flagging a ticket
+    // that is on track. Such tickets are reported as stale for the caller to re-index.
+    public SlaFlagResult markSlaViolated(Map<String, LocalDateTime> dueDateById) {
+        log.info("Flagging {} ticket(s) as SLA violated", dueDateById.size());
 
+        SlaFlagResult result = new SlaFlagResult(new HashSet<>(), new HashSet<>(), new HashSet<>());
+        BulkWriter bulkWriter = firestore.bulkWriter();
+        Map<String, ApiFuture<WriteResult>> writes = new HashMap<>();
+
+        try {
+            Map<String, DocumentSnapshot> documents = getDocuments(dueDateById.keySet(), this::documentRef);
+            if (legacyFallback && documents.size() < dueDateById.size()) {
+                List<String> unresolved = dueDateById.keySet().stream()
+                        .filter(ticketId -> !documents.containsKey(ticketId))
+                        .toList();
+                documents.putAll(getDocuments(unresolved, this::legacyDocumentRef));
+            }
+
+            dueDateById.forEach((ticketId, dueDate) -> {
+                DocumentSnapshot document = documents.get(ticketId);
+                if (document == null) {
+                    result.missing().add(ticketId);
+                    return;
+                }
+
+                LocalDateTime storedDueDate = TimeConversions.toLocalDateTime(document.getTimestamp("slaDueDate"));
+                if (!dueDate.equals(storedDueDate)) {
+                    result.stale().add(ticketId);
+                } else if (Boolean.TRUE.equals(document.getBoolean("slaViolated"))) {
+                    result.updated().add(ticketId);
+                } else {
+                    // The violation is dated at the deadline itself, so the result does not depend on sweep timing
+                    Map<String, Object> fields = new HashMap<>();
+                    fields.put("slaViolated", true);
+                    fields.put("slaViolatedAt", TimeConversions.toDate(dueDate));
+                    writes.put(ticketId, bulkWriter.update(document.getReference(), fields,
+                            Precondition.updatedAt(document.getUpdateTime())));
+                }
+            });
+
+            bulkWriter.close();
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error finding all tickets: {}", e.getMessage(), e);
+            log.error("Error flagging SLA violations: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to find all tickets", e);
+            throw new TicketServiceException("Failed to flag SLA violations", e);
         }
+
+        for (Map.Entry<String, ApiFuture<WriteResult>> entry : writes.entrySet()) {
+            String ticketId = entry.getKey();
+            try {
+                entry.getValue().get();
+                result.updated().add(ticketId);
+            } catch (ExecutionException e) {
+                if (hasStatus(e, StatusCode.Code.NOT_FOUND)) {
+                    result.missing().add(ticketId);
+                } else if (hasStatus(e, StatusCode.Code.FAILED_PRECONDITION)) {
+                    result.stale().add(ticketId);
+                } else {
+                    log.warn("Could not flag SLA violation for ticket {}: {}", ticketId, e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TicketServiceException("Interrupted while flagging SLA violations", e);
+            }
+        }
+
+        result.updated().forEach(this::invalidate);
+        result.stale().forEach(this::invalidate);
+
+        log.info("Flagged {} of {} ticket(s) as SLA violated, {} changed meanwhile, {} no longer exist",
+                result.updated().size(), dueDateById.size(), result.stale().size(), result.missing().size());
+        return result;
     }
 
+    // Existing documents by ticket ID, read with one getAll per chunk
+    private Map<String, DocumentSnapshot> getDocuments(Collection<String> ticketIds,
+                                                       Function<String, DocumentReference> refs)
+            throws InterruptedException, ExecutionException {
+        Map<String, DocumentSnapshot> found = new HashMap<>();
+        List<String> ids = new ArrayList<>(ticketIds);
+
+        for (int from = 0; from < ids.size(); from += GET_ALL_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + GET_ALL_CHUNK_SIZE, ids.size()));
+            DocumentReference[] chunkRefs = chunk.stream().map(refs).toArray(DocumentReference[]::new);
+
+            // getAll returns the snapshots in the order of the references
+            List<DocumentSnapshot> snapshots = firestore.getAll(chunkRefs).get();
+            for (int i = 0; i < snapshots.size(); i++) {
+                if (snapshots.get(i).exists()) {
+                    found.put(chunk.get(i), snapshots.get(i));
+                }
+            }
+        }
+        return found;
+    }
 
-    public void delete(String ticketId) {
-        try {
-            log.info("Deleting ticket: {}", ticketId);
+    // Tickets the sweeper flagged (or found already flagged), tickets whose deadline or document
+    // changed since the index saw them, and tickets whose document no longer exists
+    public record SlaFlagResult(Set<String> updated, Set<String> stale, Set<String> missing) {
+    }
 
-            ApiFuture<WriteResult> writeResult = firestore.collection(collectionName)
-                    .document(ticketId)
-                    .delete();
 
-            writeResult.get();
-            log.info("Ticket deleted: {}", ticketId);
+    // Moves documents stored under their plain ticket ID to the hashed storage key. Each chunk is
+    // copied and deleted in one atomic batch, so a re-run after a failure simply continues.
+    public long migrateStorageKeys(int chunkSize) {
+        try {
+            // Every moved document costs two writes and a batch is capped at 500
+            int limit = Math.min(chunkSize, 250);
+            log.info("Migrating ticket documents to hashed storage keys in chunks of {}", limit);
+
+            Query query = firestore.collection(collectionName)
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+
+            List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+            long migrated = 0;
+
+            while (!documents.isEmpty()) {
+                WriteBatch batch = firestore.batch();
+                int moves = 0;
+
+                for (QueryDocumentSnapshot document : documents) {
+                    String ticketId = document.getString("ticketId");
+                    if (ticketId == null || DocumentKeys.isStorageKey(document.getId(), ticketId)) {
+                        continue;
+                    }
+
+                    batch.set(documentRef(ticketId), document.getData());
+                    batch.delete(document.getReference());
+                    invalidate(ticketId);
+                    moves++;
+                }
+
+                if (moves > 0) {
+                    batch.commit().get();
+                    migrated += moves;
+                }
+
+                documents = documents.size() == limit
+                        ? query.startAfter(documents.get(documents.size() - 1)).get().get().getDocuments()
+                        : List.of();
+            }
+
+            log.info("Migrated {} ticket document(s) to hashed storage keys", migrated);
+            return migrated;
 
         } catch (InterruptedException | ExecutionException e) {
-            log.error("Error deleting ticket: {}", e.getMessage(), e);
+            log.error("Error migrating ticket storage keys: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new TicketServiceException("Failed to delete ticket", e);
-        }
-    }
-
-
-    private Ticket documentToTicket(DocumentSnapshot document) {
-        return Ticket.builder()
-                .ticketId(document.getId())
-                .employeeId(document.getString("employeeId"))
-                .employeeName(document.getString("employeeName"))
-                .category(TicketCategory.valueOf(document.getString("category")))
-                .description(document.getString("description"))
-                .priority(TicketPriority.valueOf(document.getString("priority")))
-                .createdAt(dateToLocalDateTime(document.getDate("createdAt")))
-                .createdBy(document.getString("createdBy"))
-                .slaDueDate(document.getDate("slaDueDate") != null ?
-                        dateToLocalDateTime(document.getDate("slaDueDate")) : null)
-                .slaViolated(document.getBoolean("slaViolated") != null ?
-                        document.getBoolean("slaViolated") : false)
-                .slaViolatedAt(document.getDate("slaViolatedAt") != null ?
-                        dateToLocalDateTime(document.getDate("slaViolatedAt")) : null)
+            throw new TicketServiceException("Failed to migrate ticket storage keys", e);
+        }
+    }
+
+
+    public BulkTicketWriter openBulkWriter(int initialOpsPerSecond, int maxOpsPerSecond) {
+        log.info("Opening bulk writer ({} ops/s ramping up to {} ops/s)", initialOpsPerSecond, maxOpsPerSecond);
+
+        BulkWriterOptions options = BulkWriterOptions.builder()
+                .setInitialOpsPerSecond(initialOpsPerSecond)
+                .setMaxOpsPerSecond(maxOpsPerSecond)
                 .build();
+
+        return new BulkTicketWriter(firestore.bulkWriter(options));
+    }
+
+    // Rate-controlled writer for imports; close() blocks until every queued write has completed
+    public class BulkTicketWriter implements AutoCloseable {
+
+        private final BulkWriter bulkWriter;
+
+        private BulkTicketWriter(BulkWriter bulkWriter) {
+            this.bulkWriter = bulkWriter;
+        }
+
+        // create() fails instead of overwriting when the ticket ID already exists
+        public ApiFuture<WriteResult> create(Ticket ticket) {
+            DocumentReference docRef = documentRef(ticket.getTicketId());
+            return bulkWriter.create(docRef, TicketCodec.encode(ticket));
+        }
+
+        @Override
+        public void close() {
+            try {
+                bulkWriter.close();
+            } catch (InterruptedException | ExecutionException e) {
+                log.error("Error flushing bulk writer: {}", e.getMessage(), e);
+                Thread.currentThread().interrupt();
+                throw new TicketServiceException("Failed to flush bulk writes", e);
+            }
+        }
     }
 
-    private Map<String, Object> convertToMap(Ticket ticket) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("ticketId", ticket.getTicketId());
-        map.put("employeeId", ticket.getEmployeeId());
-        map.put("employeeName", ticket.getEmployeeName());
-        map.put("category", ticket.getCategory().name());
-        map.put("description", ticket.getDescription());
-        map.put("priority", ticket.getPriority().name());
-        map.put("createdAt", localDateTimeToDate(ticket.getCreatedAt()));
-        map.put("createdBy", ticket.getCreatedBy());
 
-        if (ticket.getSlaDueDate() != null) {
-            map.put("slaDueDate", localDateTimeToDate(ticket.getSlaDueDate()));
+    // Callers mutate returned tickets, so the cache only ever holds and hands out copies
+    private void cache(Ticket ticket) {
+        ticketCache.put(ticket.getTicketId(), ticket.toBuilder().build());
+    }
+
+    // A read only caches if no write to the ticket happened since it started. A write that lands
+    // between the check and the put has either already run (and is undone here) or runs after
+    // it and overwrites the entry itself.
+    private void cacheRead(Ticket ticket, long generation) {
+        String ticketId = ticket.getTicketId();
+        if (writeGenerations.changedSince(ticketId, generation)) {
+            return;
         }
-        map.put("slaViolated", ticket.isSlaViolated());
-        if (ticket.getSlaViolatedAt() != null) {
-            map.put("slaViolatedAt", localDateTimeToDate(ticket.getSlaViolatedAt()));
+
+        cache(ticket);
+        if (writeGenerations.changedSince(ticketId, generation)) {
+            ticketCache.invalidate(ticketId);
         }
+    }
+
+    // After a write, reads already in flight may return the old document, so none is joined
+    private void cacheWritten(Ticket ticket) {
+        writeGenerations.advance(ticket.getTicketId());
+        ticketReads.forget(ticket.getTicketId());
+        cache(ticket);
+    }
+
+    private void invalidate(String ticketId) {
+        writeGenerations.advance(ticketId);
+        ticketReads.forget(ticketId);
+        ticketCache.invalidate(ticketId);
+    }
 
-        return map;
+    private DocumentReference documentRef(String ticketId) {
+        return firestore.collection(collectionName).document(DocumentKeys.storageKey(ticketId));
     }
 
-    private Date localDateTimeToDate(LocalDateTime localDateTime) {
-        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    private DocumentReference legacyDocumentRef(String ticketId) {
+        return firestore.collection(collectionName).document(ticketId);
     }
 
-    private LocalDateTime dateToLocalDateTime(Date date) {
-        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    private String encodeCursor(String documentId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(documentId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid page cursor: " + cursor);
+        }
     }
 }
\ No newline at end of file
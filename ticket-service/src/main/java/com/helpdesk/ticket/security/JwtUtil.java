@@ -2,6 +2,7 @@ package com.helpdesk.ticket.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -23,6 +24,18 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
 
     public String generateToken(String username, Set<String> roles, String email) {
         Map<String, Object> claims = new HashMap<>();
@@ -42,19 +55,23 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
 
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return parseClaims(token).getSubject();
     }
 
 
-    @SuppressWarnings("unchecked")
     public Set<String> extractRoles(String token) {
-        Claims claims = extractClaims(token);
+        return extractRoles(parseClaims(token));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    public Set<String> extractRoles(Claims claims) {
         Object rolesObj = claims.get("roles");
 
         if (rolesObj instanceof List) {
@@ -68,49 +85,32 @@ public class JwtUtil {
 
 
     public String extractEmail(String token) {
-        Claims claims = extractClaims(token);
+        Claims claims = parseClaims(token);
         return (String) claims.get("email");
     }
 
 
     public LocalDateTime extractExpiration(String token) {
-        Date expiration = extractClaims(token).getExpiration();
+        Date expiration = parseClaims(token).getExpiration();
         return Instant.ofEpochMilli(expiration.getTime())
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime();
     }
 
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Verifies the signature and expiry in a single parse; throws JwtException for any invalid token
+    public Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-
-            return !isTokenExpired(token);
+            parseClaims(token);
+            return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
             return false;
         }
     }
-
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractClaims(token).getExpiration();
-        return expiration.before(new Date());
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-}
\ No newline at end of file
+}
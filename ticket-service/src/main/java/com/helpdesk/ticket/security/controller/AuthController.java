@@ -12,10 +12,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,29 +30,18 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and receive JWT token")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse>>> login(@Valid @RequestBody LoginRequest request) {
         log.info("Login request received for user: {}", request.getUsername());
 
-        try {
-            LoginResponse loginResponse = authenticationService.authenticate(request);
-
+        // Failed logins surface as BadCredentialsException (401) and a full BCrypt queue as 503
+        return authenticationService.authenticate(request).thenApply(loginResponse -> {
             ApiResponse<LoginResponse> response = ApiResponse.success(
                     "Login successful",
                     loginResponse
             );
 
             return ResponseEntity.ok(response);
-
-        } catch (BadCredentialsException e) {
-            log.warn("Login failed for user: {} - {}", request.getUsername(), e.getMessage());
-
-            ApiResponse<LoginResponse> response = ApiResponse.error(
-                    "Login failed",
-                    e.getMessage()
-            );
-
-            return ResponseEntity.status(401).body(response);
-        }
+        });
     }
 
     @GetMapping("/users")
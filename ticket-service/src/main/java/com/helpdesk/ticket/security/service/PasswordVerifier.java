@@ -0,0 +1,67 @@
+package com.helpdesk.ticket.security.service;
+
+import com.helpdesk.ticket.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+// Runs BCrypt checks on a small dedicated pool so login storms cannot occupy request threads.
+// When every worker is busy and the queue is full, logins are rejected immediately with a 503.
+@Slf4j
+@Component
+public class PasswordVerifier {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordVerifier(@Value("${auth.password-verifier.threads:0}") int threads,
+                            @Value("${auth.password-verifier.queue-capacity:100}") int queueCapacity,
+                            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Publishes executor.queued, executor.queue.remaining, executor.active, ... tagged name=bcrypt
+        new ExecutorServiceMetrics(executor, "bcrypt", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password checks rejected because the BCrypt queue was full")
+                .register(meterRegistry);
+
+        log.info("Password verifier using {} thread(s) and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public CompletableFuture<Boolean> verify(BooleanSupplier check) {
+        try {
+            return CompletableFuture.supplyAsync(check::getAsBoolean, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry shortly", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
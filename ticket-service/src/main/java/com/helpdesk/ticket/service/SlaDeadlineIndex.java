@@ -0,0 +1,264 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.exception.TicketServiceException;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import com.helpdesk.ticket.util.TimeConversions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlaDeadlineIndex {
+
+    private static final long CRITICAL_WINDOW_MILLIS = SlaService.CRITICAL_WINDOW.toMillis();
+
+    private final TicketRepository ticketRepository;
+
+    // Only what the sweeper and the counters need: deadlines (epoch millis, ties broken by ticket
+    // ID) mapped to whether the violation has been persisted. Ticket lists are read on demand.
+    private final ConcurrentSkipListMap<DeadlineKey, Boolean> byDeadline = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, DeadlineKey> keysById = new ConcurrentHashMap<>();
+
+    // Writers (put/remove/advance) are serialized so that counters and boundaries never drift;
+    // range queries read the skip list without locking.
+    private final Object writeLock = new Object();
+    private long violatedBefore = System.currentTimeMillis();
+    private long violatedCount;
+    private long criticalCount;
+    private long onTrackCount;
+
+    // Non-null while a load runs: tickets put or removed meanwhile, whose loaded state is older
+    // than what the index already holds
+    private Set<String> changedDuringLoad;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // put/remove only see writes made through this instance, so changes made on other replicas
+    // (or directly in Firestore) are picked up by periodically replacing the index contents with
+    // what is stored. Until then those tickets keep their old deadline here; the sweeper
+    // re-checks every deadline against the stored document before flagging it.
+    @Scheduled(fixedDelayString = "${sla.index.reload-interval-ms:300000}",
+            initialDelayString = "${sla.index.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (writeLock) {
+            if (changedDuringLoad != null) {
+                return;
+            }
+            changedDuringLoad = new HashSet<>();
+        }
+
+        try {
+            log.info("Loading SLA deadline index");
+
+            List<Ticket> tickets = ticketRepository.findAllSlaDeadlines();
+
+            synchronized (writeLock) {
+                Set<String> loadedIds = new HashSet<>();
+                for (Ticket ticket : tickets) {
+                    loadedIds.add(ticket.getTicketId());
+                    if (!changedDuringLoad.contains(ticket.getTicketId())) {
+                        insert(ticket);
+                    }
+                }
+                for (String ticketId : new ArrayList<>(keysById.keySet())) {
+                    if (!loadedIds.contains(ticketId) && !changedDuringLoad.contains(ticketId)) {
+                        delete(ticketId);
+                    }
+                }
+                ready = true;
+            }
+
+            log.info("SLA deadline index loaded with {} ticket(s)", byDeadline.size());
+        } catch (TicketServiceException e) {
+            if (ready) {
+                log.error("Failed to reload SLA deadline index, keeping the current contents: {}", e.getMessage());
+            } else {
+                log.error("Failed to load SLA deadline index, falling back to collection scans: {}", e.getMessage());
+            }
+        } finally {
+            synchronized (writeLock) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return byDeadline.size();
+    }
+
+    public void put(Ticket ticket) {
+        synchronized (writeLock) {
+            loadedStateIsStale(ticket.getTicketId());
+            insert(ticket);
+        }
+    }
+
+    public void remove(String ticketId) {
+        synchronized (writeLock) {
+            loadedStateIsStale(ticketId);
+            delete(ticketId);
+        }
+    }
+
+    // No-op when the ticket has since moved to another deadline or been removed
+    public void markViolated(DeadlineKey deadline) {
+        byDeadline.replace(deadline, Boolean.FALSE, Boolean.TRUE);
+    }
+
+    // IDs of tickets whose due date is strictly before now, earliest first
+    public List<String> findViolated(LocalDateTime now) {
+        return ticketIds(byDeadline.headMap(DeadlineKey.lowerBound(TimeConversions.toEpochMilli(now))).keySet());
+    }
+
+    // Overdue deadlines whose violation has not been persisted yet
+    public List<DeadlineKey> findPendingViolations(LocalDateTime now) {
+        List<DeadlineKey> result = new ArrayList<>();
+        byDeadline.headMap(DeadlineKey.lowerBound(TimeConversions.toEpochMilli(now))).forEach((key, violated) -> {
+            if (!violated) {
+                result.add(key);
+            }
+        });
+        return result;
+    }
+
+    // IDs of tickets whose due date falls within [now, now + window), earliest first
+    public List<String> findDueWithin(LocalDateTime now, Duration window) {
+        long from = TimeConversions.toEpochMilli(now);
+        long to = TimeConversions.toEpochMilli(now.plus(window));
+
+        return ticketIds(byDeadline.subMap(DeadlineKey.lowerBound(from), DeadlineKey.lowerBound(to)).keySet());
+    }
+
+    public SlaCounts countsAt(LocalDateTime now) {
+        synchronized (writeLock) {
+            advanceTo(TimeConversions.toEpochMilli(now));
+            return new SlaCounts(byDeadline.size(), violatedCount, criticalCount, onTrackCount);
+        }
+    }
+
+    // Moves only the tickets that crossed a boundary since the last call, so the cost is
+    // proportional to the number of crossings rather than to the index size.
+    private void advanceTo(long now) {
+        long previousViolatedBefore = violatedBefore;
+        long previousCriticalBefore = previousViolatedBefore + CRITICAL_WINDOW_MILLIS;
+
+        if (now <= previousViolatedBefore) {
+            return;
+        }
+
+        long criticalBefore = now + CRITICAL_WINDOW_MILLIS;
+
+        for (DeadlineKey key : byDeadline.subMap(DeadlineKey.lowerBound(previousViolatedBefore),
+                DeadlineKey.lowerBound(now)).keySet()) {
+            if (key.dueAt() < previousCriticalBefore) {
+                criticalCount--;
+            } else {
+                onTrackCount--;
+            }
+            violatedCount++;
+        }
+
+        long newlyCriticalFrom = Math.max(previousCriticalBefore, now);
+        if (newlyCriticalFrom < criticalBefore) {
+            int crossed = byDeadline.subMap(DeadlineKey.lowerBound(newlyCriticalFrom),
+                    DeadlineKey.lowerBound(criticalBefore)).size();
+            onTrackCount -= crossed;
+            criticalCount += crossed;
+        }
+
+        violatedBefore = now;
+    }
+
+    private void count(long dueAt, int delta) {
+        if (dueAt < violatedBefore) {
+            violatedCount += delta;
+        } else if (dueAt < violatedBefore + CRITICAL_WINDOW_MILLIS) {
+            criticalCount += delta;
+        } else {
+            onTrackCount += delta;
+        }
+    }
+
+    private void insert(Ticket ticket) {
+        delete(ticket.getTicketId());
+        if (ticket.getSlaDueDate() == null) {
+            return;
+        }
+
+        DeadlineKey key = new DeadlineKey(TimeConversions.toEpochMilli(ticket.getSlaDueDate()), ticket.getTicketId());
+        keysById.put(ticket.getTicketId(), key);
+        byDeadline.put(key, ticket.isSlaViolated());
+        count(key.dueAt(), 1);
+    }
+
+    private void delete(String ticketId) {
+        DeadlineKey key = keysById.remove(ticketId);
+        if (key != null) {
+            byDeadline.remove(key);
+            count(key.dueAt(), -1);
+        }
+    }
+
+    private void loadedStateIsStale(String ticketId) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(ticketId);
+        }
+    }
+
+    private static List<String> ticketIds(Collection<DeadlineKey> keys) {
+        List<String> result = new ArrayList<>();
+        for (DeadlineKey key : keys) {
+            result.add(key.ticketId());
+        }
+        return result;
+    }
+
+    public record SlaCounts(long total, long violated, long critical, long onTrack) {
+    }
+
+    record DeadlineKey(long dueAt, String ticketId) implements Comparable<DeadlineKey> {
+
+        LocalDateTime dueDate() {
+            return TimeConversions.fromEpochMilli(dueAt);
+        }
+
+        private static final Comparator<DeadlineKey> ORDER = Comparator
+                .comparingLong(DeadlineKey::dueAt)
+                .thenComparing(DeadlineKey::ticketId);
+
+        static DeadlineKey lowerBound(long dueAt) {
+            return new DeadlineKey(dueAt, "");
+        }
+
+        @Override
+        public int compareTo(DeadlineKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
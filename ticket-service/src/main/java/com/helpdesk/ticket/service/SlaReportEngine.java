@@ -0,0 +1,115 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.config.SlaConfig;
+import com.helpdesk.ticket.dto.SlaReportResponse;
+import com.helpdesk.ticket.dto.SlaStatusResponse;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlaReportEngine {
+
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final TicketRepository ticketRepository;
+    private final SlaService slaService;
+    private final SlaConfig slaConfig;
+
+    public SlaReportResponse generateReport(boolean recompute, boolean includeTickets) {
+        if (recompute || !slaConfig.getReport().isIncremental() || !slaDeadlineIndex.isReady()) {
+            return includeTickets ? recomputeReport() : countReport();
+        }
+
+        log.info("Generating SLA report from incremental counters");
+
+        LocalDateTime now = LocalDateTime.now();
+        SlaDeadlineIndex.SlaCounts counts = slaDeadlineIndex.countsAt(now);
+
+        List<SlaStatusResponse> violated = new ArrayList<>();
+        List<SlaStatusResponse> critical = new ArrayList<>();
+
+        if (includeTickets) {
+            // The index only holds deadlines, so the listed tickets are read by ID
+            List<String> violatedIds = slaDeadlineIndex.findViolated(now);
+            List<String> criticalIds = slaDeadlineIndex.findDueWithin(now, SlaService.CRITICAL_WINDOW);
+
+            for (Ticket ticket : ticketRepository.findAllById(violatedIds)) {
+                markViolated(ticket);
+                violated.add(slaService.buildSlaStatus(ticket));
+            }
+
+            for (Ticket ticket : ticketRepository.findAllById(criticalIds)) {
+                critical.add(slaService.buildSlaStatus(ticket));
+            }
+        }
+
+        return buildReport(counts.total(), counts.violated(), counts.critical(), counts.onTrack(),
+                violated, critical);
+    }
+
+    // Fallback without the in-memory index: the total comes from a count() aggregation and only
+    // the overdue and critical tickets are read, via range queries on slaDueDate. Like the index,
+    // the total leaves out tickets without an SLA due date. Nothing is written back.
+    public SlaReportResponse recomputeReport() {
+        log.info("Generating SLA report from server-side queries");
+
+        LocalDateTime now = LocalDateTime.now();
+        long total = ticketRepository.countWithSlaDueDate();
+
+        List<SlaStatusResponse> violated = new ArrayList<>();
+        for (Ticket ticket : ticketRepository.findSlaDueBefore(now)) {
+            markViolated(ticket);
+            violated.add(slaService.buildSlaStatus(ticket));
+        }
+
+        List<SlaStatusResponse> critical = new ArrayList<>();
+        for (Ticket ticket : ticketRepository.findUnviolatedSlaDueBetween(now, now.plus(SlaService.CRITICAL_WINDOW))) {
+            critical.add(slaService.buildSlaStatus(ticket));
+        }
+
+        return buildReport(total, violated.size(), critical.size(), total - violated.size() - critical.size(),
+                violated, critical);
+    }
+
+    // Counts only, from three count() aggregations; no ticket documents are read
+    public SlaReportResponse countReport() {
+        log.info("Generating SLA report from count aggregations");
+
+        LocalDateTime now = LocalDateTime.now();
+        long total = ticketRepository.countWithSlaDueDate();
+        long violated = ticketRepository.countSlaDueBefore(now);
+        long critical = ticketRepository.countSlaDueBetween(now, now.plus(SlaService.CRITICAL_WINDOW));
+
+        return buildReport(total, violated, critical, total - violated - critical, List.of(), List.of());
+    }
+
+    private void markViolated(Ticket ticket) {
+        if (!ticket.isSlaViolated()) {
+            ticket.setSlaViolated(true);
+            ticket.setSlaViolatedAt(ticket.getSlaDueDate());
+        }
+    }
+
+    private SlaReportResponse buildReport(long total, long violatedCount, long criticalCount, long onTrackCount,
+                                          List<SlaStatusResponse> violated, List<SlaStatusResponse> critical) {
+        double violationRate = total == 0 ? 0 : (double) violatedCount / total * 100;
+
+        return SlaReportResponse.builder()
+                .totalTickets((int) total)
+                .violatedCount((int) violatedCount)
+                .criticalCount((int) criticalCount)
+                .onTrackCount((int) Math.max(0, onTrackCount))
+                .violationRate(violationRate)
+                .violatedTickets(violated)
+                .criticalTickets(critical)
+                .build();
+    }
+}
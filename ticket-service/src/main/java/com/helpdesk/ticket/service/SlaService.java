@@ -1,6 +1,7 @@
 package com.helpdesk.ticket.service;
 
 import com.helpdesk.ticket.config.SlaConfig;
+import com.helpdesk.ticket.dto.SlaStatusResponse;
 import com.helpdesk.ticket.model.Ticket;
 import com.helpdesk.ticket.model.TicketPriority;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,8 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class SlaService {
 
+    public static final Duration CRITICAL_WINDOW = Duration.ofHours(2);
+
     private final SlaConfig slaConfig;
 
     public LocalDateTime calculateSlaDueDate(Ticket ticket) {
@@ -29,11 +32,16 @@ public class SlaService {
 
 
     public boolean isSlaViolated(Ticket ticket) {
+        return isSlaViolated(ticket, LocalDateTime.now());
+    }
+
+    // Lets callers evaluate many tickets against a single clock reading
+    public boolean isSlaViolated(Ticket ticket, LocalDateTime now) {
         if (ticket.getSlaDueDate() == null) {
             return false;
         }
 
-        boolean violated = LocalDateTime.now().isAfter(ticket.getSlaDueDate());
+        boolean violated = now.isAfter(ticket.getSlaDueDate());
 
         if (violated && !ticket.isSlaViolated()) {
             log.warn("SLA VIOLATION detected for ticket {}: Due date {} passed",
@@ -67,7 +75,7 @@ public class SlaService {
         }
 
         Duration remaining = getRemainingTime(ticket);
-        return remaining.toHours() < 2;
+        return remaining.compareTo(CRITICAL_WINDOW) < 0;
     }
 
     public String getSlaStatusMessage(Ticket ticket) {
@@ -86,4 +94,20 @@ public class SlaService {
         return String.format("On track: %d hours %d minutes remaining",
                 remaining.toHours(), remaining.toMinutesPart());
     }
+
+    public SlaStatusResponse buildSlaStatus(Ticket ticket) {
+        Duration remaining = getRemainingTime(ticket);
+
+        return SlaStatusResponse.builder()
+                .ticketId(ticket.getTicketId())
+                .createdAt(ticket.getCreatedAt())
+                .slaDueDate(ticket.getSlaDueDate())
+                .slaViolated(ticket.isSlaViolated())
+                .slaViolatedAt(ticket.getSlaViolatedAt())
+                .slaStatus(getSlaStatusMessage(ticket))
+                .remainingHours(remaining.toHours())
+                .remainingMinutes(remaining.toMinutesPart())
+                .critical(isCritical(ticket))
+                .build();
+    }
 }
\ No newline at end of file
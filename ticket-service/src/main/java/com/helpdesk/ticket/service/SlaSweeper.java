@@ -0,0 +1,150 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.config.SlaConfig;
+import com.helpdesk.ticket.exception.TicketServiceException;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class SlaSweeper {
+
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final TicketRepository ticketRepository;
+    private final SlaConfig slaConfig;
+
+    private final Timer runTimer;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSize;
+    private final Counter flagged;
+    private final Counter failed;
+    private final AtomicLong pending = new AtomicLong();
+
+    public SlaSweeper(SlaDeadlineIndex slaDeadlineIndex,
+                      TicketRepository ticketRepository,
+                      SlaConfig slaConfig,
+                      MeterRegistry meterRegistry) {
+        this.slaDeadlineIndex = slaDeadlineIndex;
+        this.ticketRepository = ticketRepository;
+        this.slaConfig = slaConfig;
+
+        this.runTimer = Timer.builder("sla.sweeper.run")
+                .description("Duration of one SLA sweep")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("sla.sweeper.lag")
+                .description("Delay between an SLA deadline passing and the violation being persisted")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("sla.sweeper.batch.size")
+                .description("Number of tickets written per sweeper batch")
+                .register(meterRegistry);
+        this.flagged = Counter.builder("sla.sweeper.flagged")
+                .description("Tickets flagged as SLA violated by the sweeper")
+                .register(meterRegistry);
+        this.failed = Counter.builder("sla.sweeper.failed")
+                .description("Tickets the sweeper could not flag")
+                .register(meterRegistry);
+        meterRegistry.gauge("sla.sweeper.pending", pending);
+    }
+
+    @Scheduled(fixedDelayString = "${sla.sweeper.interval-ms:60000}",
+            initialDelayString = "${sla.sweeper.interval-ms:60000}")
+    public void sweep() {
+        if (!slaConfig.getSweeper().isEnabled() || !slaDeadlineIndex.isReady()) {
+            return;
+        }
+
+        runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<SlaDeadlineIndex.DeadlineKey> overdue = slaDeadlineIndex.findPendingViolations(now);
+            pending.set(overdue.size());
+
+            if (overdue.isEmpty()) {
+                return;
+            }
+
+            log.info("SLA sweeper found {} newly violated ticket(s)", overdue.size());
+
+            int chunkSize = Math.max(1, slaConfig.getSweeper().getBatchSize());
+            for (int from = 0; from < overdue.size(); from += chunkSize) {
+                flagChunk(overdue.subList(from, Math.min(from + chunkSize, overdue.size())), now);
+            }
+        });
+    }
+
+    private void flagChunk(List<SlaDeadlineIndex.DeadlineKey> chunk, LocalDateTime now) {
+        Map<String, LocalDateTime> dueDateById = new LinkedHashMap<>();
+        for (SlaDeadlineIndex.DeadlineKey deadline : chunk) {
+            dueDateById.put(deadline.ticketId(), deadline.dueDate());
+        }
+
+        batchSize.record(chunk.size());
+
+        TicketRepository.SlaFlagResult result;
+        try {
+            result = ticketRepository.markSlaViolated(dueDateById);
+        } catch (TicketServiceException e) {
+            log.error("SLA sweeper batch failed: {}", e.getMessage());
+            failed.increment(chunk.size());
+            return;
+        }
+
+        Set<String> updated = result.updated();
+        Set<String> stale = result.stale();
+        Set<String> missing = result.missing();
+
+        for (SlaDeadlineIndex.DeadlineKey deadline : chunk) {
+            if (missing.contains(deadline.ticketId())) {
+                // Deleted on another replica; retrying would fail the same way on every sweep
+                slaDeadlineIndex.remove(deadline.ticketId());
+            } else if (updated.contains(deadline.ticketId())) {
+                slaDeadlineIndex.markViolated(deadline);
+                lagTimer.record(Duration.between(deadline.dueDate(), now));
+
+                log.error("SLA VIOLATION: Ticket {} exceeded due date {}", deadline.ticketId(), deadline.dueDate());
+            }
+        }
+
+        reindex(stale);
+
+        flagged.increment(updated.size());
+        failed.increment(chunk.size() - updated.size() - stale.size() - missing.size());
+        pending.addAndGet(-updated.size() - stale.size() - missing.size());
+    }
+
+    // Tickets changed since the index saw them are not errors: the index entry is replaced with
+    // what is stored now, so a moved deadline is swept when it is actually due
+    private void reindex(Set<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<String> found = new HashSet<>();
+            for (Ticket ticket : ticketRepository.findAllById(ticketIds)) {
+                slaDeadlineIndex.put(ticket);
+                found.add(ticket.getTicketId());
+            }
+            ticketIds.stream().filter(ticketId -> !found.contains(ticketId)).forEach(slaDeadlineIndex::remove);
+            log.info("Re-indexed {} ticket(s) changed since the SLA index last saw them", ticketIds.size());
+        } catch (TicketServiceException e) {
+            // Left as they are, the entries come up again on the next sweep
+            log.warn("Could not re-index {} changed ticket(s): {}", ticketIds.size(), e.getMessage());
+        }
+    }
+}
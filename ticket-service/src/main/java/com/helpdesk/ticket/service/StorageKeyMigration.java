@@ -0,0 +1,38 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.exception.TicketServiceException;
+import com.helpdesk.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageKeyMigration {
+
+    private final TicketRepository ticketRepository;
+
+    @Value("${storage-keys.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${storage-keys.migration-chunk-size:250}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!migrateOnStartup) {
+            return;
+        }
+
+        try {
+            long migrated = ticketRepository.migrateStorageKeys(chunkSize);
+            log.info("Storage key migration finished, {} ticket(s) moved", migrated);
+        } catch (TicketServiceException e) {
+            log.error("Storage key migration failed, legacy keys remain readable: {}", e.getMessage());
+        }
+    }
+}
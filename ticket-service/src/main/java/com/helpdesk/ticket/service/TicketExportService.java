@@ -0,0 +1,95 @@
+package com.helpdesk.ticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketExportService {
+
+    private static final String CSV_HEADER = "ticketId,employeeId,employeeName,category,description,priority,"
+            + "createdAt,createdBy,slaDueDate,slaViolated,slaViolatedAt";
+
+    private final TicketRepository ticketRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.chunk-size:500}")
+    private int chunkSize;
+
+    public void writeNdjson(OutputStream outputStream) throws IOException {
+        log.info("Exporting tickets as NDJSON");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long count = ticketRepository.streamAll(chunkSize, ticket -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(ticket));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+
+        log.info("Exported {} tickets as NDJSON", count);
+    }
+
+    public void writeCsv(OutputStream outputStream) throws IOException {
+        log.info("Exporting tickets as CSV");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = ticketRepository.streamAll(chunkSize, ticket -> {
+            try {
+                writeCsvRow(writer, ticket);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+
+        log.info("Exported {} tickets as CSV", count);
+    }
+
+    private void writeCsvRow(Writer writer, Ticket ticket) throws IOException {
+        writer.write(String.join(",",
+                csv(ticket.getTicketId()),
+                csv(ticket.getEmployeeId()),
+                csv(ticket.getEmployeeName()),
+                csv(ticket.getCategory()),
+                csv(ticket.getDescription()),
+                csv(ticket.getPriority()),
+                csv(ticket.getCreatedAt()),
+                csv(ticket.getCreatedBy()),
+                csv(ticket.getSlaDueDate()),
+                csv(ticket.isSlaViolated()),
+                csv(ticket.getSlaViolatedAt())));
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
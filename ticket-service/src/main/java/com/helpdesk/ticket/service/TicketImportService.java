@@ -0,0 +1,177 @@
+package com.helpdesk.ticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.WriteResult;
+import com.helpdesk.ticket.dto.BulkImportRecordResult;
+import com.helpdesk.ticket.dto.BulkImportResponse;
+import com.helpdesk.ticket.dto.CreateTicketRequest;
+import com.helpdesk.ticket.exception.TicketServiceException;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TicketImportService {
+
+    private final TicketRepository ticketRepository;
+    private final TicketService ticketService;
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${bulk-import.initial-ops-per-second:500}")
+    private int initialOpsPerSecond;
+
+    @Value("${bulk-import.max-ops-per-second:5000}")
+    private int maxOpsPerSecond;
+
+    // Writes queued but not yet acknowledged; reading stops while this many are outstanding
+    @Value("${bulk-import.max-pending-writes:1000}")
+    private int maxPendingWrites;
+
+    // Only failed lines are listed in the response, and at most this many of them
+    @Value("${bulk-import.max-reported-failures:1000}")
+    private int maxReportedFailures;
+
+    public BulkImportResponse importNdjson(InputStream inputStream) {
+        log.info("Starting bulk ticket import");
+
+        long startedAt = System.nanoTime();
+        ImportProgress progress = new ImportProgress(maxReportedFailures);
+        Semaphore pendingWrites = new Semaphore(maxPendingWrites);
+
+        // Records are validated and queued as they are read; the writer applies its own rate limit
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+             TicketRepository.BulkTicketWriter writer =
+                     ticketRepository.openBulkWriter(initialOpsPerSecond, maxOpsPerSecond)) {
+
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                progress.total.incrementAndGet();
+
+                CreateTicketRequest request;
+                try {
+                    request = objectMapper.readValue(line, CreateTicketRequest.class);
+                } catch (JsonProcessingException e) {
+                    progress.fail(lineNumber, null, "Malformed record: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<CreateTicketRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    progress.fail(lineNumber, null, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                Ticket ticket = ticketService.buildTicket(request);
+                pendingWrites.acquire();
+                track(writer.create(ticket), ticket, lineNumber, progress, pendingWrites);
+            }
+
+        } catch (IOException e) {
+            log.error("Error reading import body: {}", e.getMessage(), e);
+            throw new TicketServiceException("Failed to read import body", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketServiceException("Bulk import interrupted", e);
+        }
+
+        // The writer is closed at this point, so every write callback has already run
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        long total = progress.total.get();
+        long imported = progress.imported.get();
+
+        log.info("Bulk import finished: {} of {} record(s) imported in {} ms", imported, total, elapsedMillis);
+
+        return BulkImportResponse.builder()
+                .totalRecords(total)
+                .importedCount(imported)
+                .failedCount(total - imported)
+                .elapsedMillis(elapsedMillis)
+                .recordsPerSecond(total * 1000.0 / elapsedMillis)
+                .results(progress.failures())
+                .build();
+    }
+
+    // The ticket is only referenced by the callback, so it is released as soon as its write completes
+    private void track(ApiFuture<WriteResult> future, Ticket ticket, long lineNumber,
+                       ImportProgress progress, Semaphore pendingWrites) {
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(WriteResult result) {
+                pendingWrites.release();
+                progress.imported.incrementAndGet();
+                slaDeadlineIndex.put(ticket);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                pendingWrites.release();
+                progress.fail(lineNumber, ticket.getTicketId(), "Write failed: " + t.getMessage());
+            }
+        }, Runnable::run);
+    }
+
+    private static class ImportProgress {
+
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final int maxReportedFailures;
+        private final List<BulkImportRecordResult> failures = new ArrayList<>();
+
+        private ImportProgress(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        private synchronized void fail(long lineNumber, String ticketId, String error) {
+            if (failures.size() < maxReportedFailures) {
+                failures.add(BulkImportRecordResult.builder()
+                        .line(lineNumber)
+                        .ticketId(ticketId)
+                        .error(error)
+                        .build());
+            }
+        }
+
+        // Write failures are reported from callback threads, so they arrive out of line order
+        private synchronized List<BulkImportRecordResult> failures() {
+            List<BulkImportRecordResult> sorted = new ArrayList<>(failures);
+            sorted.sort(Comparator.comparingLong(BulkImportRecordResult::getLine));
+            return sorted;
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.helpdesk.ticket.service;
 
 import com.helpdesk.ticket.dto.CreateTicketRequest;
+import com.helpdesk.ticket.dto.UpdateTicketRequest;
+import com.helpdesk.ticket.exception.InvalidRequestException;
 import com.helpdesk.ticket.exception.TicketNotFoundException;
 import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.model.TicketCategory;
 import com.helpdesk.ticket.model.TicketPriority;
+import com.helpdesk.ticket.repository.CursorPage;
 import com.helpdesk.ticket.repository.TicketRepository;
+import com.helpdesk.ticket.util.FieldSelection;
+import com.helpdesk.ticket.util.IdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -20,12 +30,42 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final SlaService slaService;
-    
-    public Ticket createTicket(CreateTicketRequest request) {
+    private final SlaDeadlineIndex slaDeadlineIndex;
+    private final IdGenerator idGenerator;
+
+    @Value("${tickets.batch.max-ids:500}")
+    private int maxBatchIds;
+
+    @Value("${pagination.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    public CompletableFuture<Ticket> createTicket(CreateTicketRequest request) {
         log.info("Creating ticket for employee: {}", request.getEmployeeId());
 
+        Ticket ticket = buildTicket(request);
+        LocalDateTime slaDueDate = ticket.getSlaDueDate();
+
+        return ticketRepository.saveAsync(ticket).thenApply(savedTicket -> {
+            slaDeadlineIndex.put(savedTicket);
+
+            log.info("Ticket created successfully: {} with SLA due date: {}",
+                    savedTicket.getTicketId(), slaDueDate);
+
+            if (ticket.getPriority() == TicketPriority.HIGH) {
+                log.warn("HIGH PRIORITY ticket created: {} - Must be resolved within 24 hours (Due: {})",
+                        ticket.getTicketId(), slaDueDate);
+            }
+
+            return savedTicket;
+        });
+    }
+
+    Ticket buildTicket(CreateTicketRequest request) {
         Ticket ticket = Ticket.builder()
-                .ticketId(Ticket.generateTicketId())
+                .ticketId(idGenerator.nextId(Ticket.ID_PREFIX))
                 .employeeId(request.getEmployeeId())
                 .employeeName(request.getEmployeeName())
                 .category(request.getCategory())
@@ -36,103 +76,198 @@ public class TicketService {
                 .slaViolated(false)
                 .build();
 
-        LocalDateTime slaDueDate = slaService.calculateSlaDueDate(ticket);
-        ticket.setSlaDueDate(slaDueDate);
+        ticket.setSlaDueDate(slaService.calculateSlaDueDate(ticket));
 
-        Ticket savedTicket = ticketRepository.save(ticket);
-
-        log.info("Ticket created successfully: {} with SLA due date: {}",
-                savedTicket.getTicketId(), slaDueDate);
-
-        if (ticket.getPriority() == TicketPriority.HIGH) {
-            log.warn("HIGH PRIORITY ticket created: {} - Must be resolved within 24 hours (Due: {})",
-                    ticket.getTicketId(), slaDueDate);
-        }
-
-        return savedTicket;
+        return ticket;
     }
 
 
-    public Ticket getTicketById(String ticketId) {
+    public CompletableFuture<Ticket> getTicketById(String ticketId) {
         log.info("Fetching ticket: {}", ticketId);
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new TicketNotFoundException("Ticket not found with ID: " + ticketId));
+        return ticketRepository.findByIdAsync(ticketId).thenApply(found -> {
+            Ticket ticket = found.orElseThrow(
+                    () -> new TicketNotFoundException("Ticket not found with ID: " + ticketId));
 
-        updateSlaStatus(ticket);
+            applySlaStatus(ticket);
 
-        return ticket;
+            return ticket;
+        });
     }
 
-    public List<Ticket> getTicketsByEmployeeId(String employeeId) {
-        log.info("Fetching tickets for employee: {}", employeeId);
+    public CompletableFuture<List<Ticket>> getTicketsByIds(List<String> ticketIds) {
+        log.info("Fetching {} ticket(s) by ID", ticketIds.size());
+
+        if (ticketIds.size() > maxBatchIds) {
+            throw new InvalidRequestException("At most " + maxBatchIds + " ticket IDs per request");
+        }
 
-        List<Ticket> tickets = ticketRepository.findByEmployeeId(employeeId);
+        return ticketRepository.findAllByIdAsync(ticketIds).thenApply(tickets -> {
+            LocalDateTime now = LocalDateTime.now();
+            tickets.forEach(ticket -> applySlaStatus(ticket, now));
+            return tickets;
+        });
+    }
 
-        tickets.forEach(this::updateSlaStatus);
+    public CompletableFuture<CursorPage<Ticket>> getTicketsByEmployeeId(String employeeId, Integer limit, String cursor,
+                                                                       String fields) {
+        log.info("Fetching tickets for employee: {}", employeeId);
 
-        return tickets;
+        return ticketRepository.findPageByEmployeeIdAsync(employeeId, resolvePageSize(limit), cursor, parseFields(fields))
+                .thenApply(this::applySlaStatusToPage);
     }
 
-    public List<Ticket> getTicketsByPriority(TicketPriority priority) {
+    public CompletableFuture<CursorPage<Ticket>> getTicketsByPriority(TicketPriority priority, Integer limit, String cursor,
+                                                                     String fields) {
         log.info("Fetching tickets with priority: {}", priority);
 
-        List<Ticket> tickets = ticketRepository.findByPriority(priority);
-        tickets.forEach(this::updateSlaStatus);
-
-        return tickets;
+        return ticketRepository.findPageByPriorityAsync(priority, resolvePageSize(limit), cursor, parseFields(fields))
+                .thenApply(this::applySlaStatusToPage);
     }
 
-    public List<Ticket> getAllTickets() {
+    public CompletableFuture<CursorPage<Ticket>> getAllTickets(Integer limit, String cursor, String fields) {
         log.info("Fetching all tickets");
-        List<Ticket> tickets = ticketRepository.findAll();
-        tickets.forEach(this::updateSlaStatus);
-        return tickets;
+
+        return ticketRepository.findPageAsync(resolvePageSize(limit), cursor, parseFields(fields))
+                .thenApply(this::applySlaStatusToPage);
     }
 
 
-    public List<Ticket> getSlaViolatedTickets() {
+    public CompletableFuture<Long> countTickets(TicketPriority priority, TicketCategory category, Boolean slaViolated) {
+        log.info("Counting tickets (priority: {}, category: {}, slaViolated: {})", priority, category, slaViolated);
+        return ticketRepository.countAsync(priority, category, slaViolated);
+    }
+
+
+    public CompletableFuture<List<Ticket>> getSlaViolatedTickets() {
         log.info("Fetching SLA violated tickets");
 
-        List<Ticket> allTickets = ticketRepository.findAll();
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<List<Ticket>> tickets = slaDeadlineIndex.isReady()
+                ? ticketRepository.findAllByIdAsync(slaDeadlineIndex.findViolated(now))
+                : ticketRepository.findSlaDueBeforeAsync(now);
 
-        return allTickets.stream()
-                .peek(this::updateSlaStatus)
-                .filter(Ticket::isSlaViolated)
-                .collect(Collectors.toList());
+        return tickets.thenApply(found -> {
+            found.forEach(ticket -> applySlaStatus(ticket, now));
+            return found;
+        });
     }
 
 
-    public List<Ticket> getCriticalTickets() {
+    public CompletableFuture<List<Ticket>> getCriticalTickets() {
         log.info("Fetching critical tickets (near SLA breach)");
 
-        List<Ticket> allTickets = ticketRepository.findAll();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!slaDeadlineIndex.isReady()) {
+            return ticketRepository.findUnviolatedSlaDueBetweenAsync(now, now.plus(SlaService.CRITICAL_WINDOW));
+        }
 
-        return allTickets.stream()
-                .peek(this::updateSlaStatus)
+        List<String> dueIds = slaDeadlineIndex.findDueWithin(now, SlaService.CRITICAL_WINDOW);
+        return ticketRepository.findAllByIdAsync(dueIds).thenApply(tickets -> tickets.stream()
                 .filter(ticket -> !ticket.isSlaViolated())
-                .filter(slaService::isCritical)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    // Only fields that actually change are written; a priority change also moves the SLA due date.
+    // expectedVersion (from If-Match) makes the write conditional on the ticket being unchanged.
+    public CompletableFuture<Ticket> updateTicket(String ticketId, UpdateTicketRequest request, String expectedVersion) {
+        log.info("Updating ticket: {}", ticketId);
+
+        return getTicketById(ticketId).thenCompose(ticket -> {
+            Set<String> changed = applyChanges(ticket, request);
+            if (changed.isEmpty()) {
+                log.info("No changes for ticket: {}", ticketId);
+                return CompletableFuture.completedFuture(ticket);
+            }
+
+            return ticketRepository.updateAsync(ticket, changed, expectedVersion).thenApply(version -> {
+                ticket.setVersion(version.orElseThrow(
+                        () -> new TicketNotFoundException("Ticket not found with ID: " + ticketId)));
+
+                if (changed.contains("slaDueDate")) {
+                    slaDeadlineIndex.put(ticket);
+                }
+
+                log.info("Ticket updated successfully: {} (fields: {})", ticketId, changed);
+                return ticket;
+            });
+        });
+    }
+
+    private Set<String> applyChanges(Ticket ticket, UpdateTicketRequest request) {
+        Set<String> changed = new LinkedHashSet<>();
+
+        if (request.getEmployeeName() != null && !request.getEmployeeName().equals(ticket.getEmployeeName())) {
+            ticket.setEmployeeName(request.getEmployeeName());
+            changed.add("employeeName");
+        }
+        if (request.getCategory() != null && request.getCategory() != ticket.getCategory()) {
+            ticket.setCategory(request.getCategory());
+            changed.add("category");
+        }
+        if (request.getDescription() != null && !request.getDescription().equals(ticket.getDescription())) {
+            ticket.setDescription(request.getDescription());
+            changed.add("description");
+        }
+        if (request.getPriority() != null && request.getPriority() != ticket.getPriority()) {
+            ticket.setPriority(request.getPriority());
+            changed.add("priority");
+
+            // The violation flags follow the new deadline, so a ticket moved to a later due date
+            // is on track (or critical) again instead of staying violated
+            LocalDateTime slaDueDate = slaService.calculateSlaDueDate(ticket);
+            boolean violated = LocalDateTime.now().isAfter(slaDueDate);
+            ticket.setSlaDueDate(slaDueDate);
+            ticket.setSlaViolated(violated);
+            ticket.setSlaViolatedAt(violated ? slaDueDate : null);
+            changed.addAll(List.of("slaDueDate", "slaViolated", "slaViolatedAt"));
+        }
+
+        return changed;
     }
 
-    public void deleteTicket(String ticketId) {
+    public CompletableFuture<Void> deleteTicket(String ticketId) {
         log.info("Deleting ticket: {}", ticketId);
-        getTicketById(ticketId);
-        ticketRepository.delete(ticketId);
-        log.info("Ticket deleted successfully: {}", ticketId);
+
+        return getTicketById(ticketId)
+                .thenCompose(ticket -> ticketRepository.deleteAsync(ticketId))
+                .thenRun(() -> {
+                    slaDeadlineIndex.remove(ticketId);
+                    log.info("Ticket deleted successfully: {}", ticketId);
+                });
     }
 
 
-    private void updateSlaStatus(Ticket ticket) {
-        boolean currentlyViolated = slaService.isSlaViolated(ticket);
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new InvalidRequestException("Page size must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
 
-        if (currentlyViolated && !ticket.isSlaViolated()) {
-            ticket.setSlaViolated(true);
-            ticket.setSlaViolatedAt(LocalDateTime.now());
-            ticketRepository.save(ticket);
+    private FieldSelection parseFields(String fields) {
+        return FieldSelection.parse(fields, TicketRepository.SELECTABLE_FIELDS);
+    }
+
+    private CursorPage<Ticket> applySlaStatusToPage(CursorPage<Ticket> page) {
+        LocalDateTime now = LocalDateTime.now();
+        page.items().forEach(ticket -> applySlaStatus(ticket, now));
+        return page;
+    }
 
-            log.error("SLA VIOLATION: Ticket {} exceeded due date {}",
-                    ticket.getTicketId(), ticket.getSlaDueDate());
+    // Read paths only reflect the violation in the response; SlaSweeper persists it in the background
+    private void applySlaStatus(Ticket ticket) {
+        applySlaStatus(ticket, LocalDateTime.now());
+    }
+
+    private void applySlaStatus(Ticket ticket, LocalDateTime now) {
+        if (!ticket.isSlaViolated() && slaService.isSlaViolated(ticket, now)) {
+            ticket.setSlaViolated(true);
+            ticket.setSlaViolatedAt(ticket.getSlaDueDate());
         }
     }
 }
\ No newline at end of file
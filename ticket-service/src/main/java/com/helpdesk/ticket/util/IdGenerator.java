@@ -0,0 +1,100 @@
+package com.helpdesk.ticket.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Snowflake-style 64-bit IDs: 41 bits of milliseconds since EPOCH, 10 bits of node ID and a
+// 12-bit per-millisecond sequence. IDs are rendered as fixed-width decimals, so string order
+// matches creation order and IDs from different nodes never collide.
+@Slf4j
+public final class IdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int ID_WIDTH = String.valueOf(Long.MAX_VALUE).length();
+
+    // StatefulSet pods are named <set>-<ordinal>
+    private static final Pattern POD_ORDINAL = Pattern.compile(".+-(\\d{1,4})");
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long nodeBits;
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    // The node ID comes from explicit settings only: the configured ID, or the ordinal of the pod
+    // name when running as a StatefulSet (statefulSetPodName is null otherwise). Without either,
+    // node 0 is only taken by a local instance; anything else fails startup, since replicas that
+    // fell back to the same node could issue the same ID.
+    public static IdGenerator forNode(int configuredNodeId, String statefulSetPodName, boolean local) {
+        int nodeId;
+        if (configuredNodeId >= 0) {
+            nodeId = configuredNodeId;
+        } else if (statefulSetPodName != null) {
+            nodeId = podOrdinal(statefulSetPodName);
+            if (nodeId < 0) {
+                throw new IllegalStateException("Pod name '" + statefulSetPodName
+                        + "' has no StatefulSet ordinal between 0 and " + MAX_NODE_ID
+                        + "; set POD_NAME from metadata.name or set id-generator.node-id");
+            }
+        } else if (local) {
+            nodeId = 0;
+        } else {
+            throw new IllegalStateException("Set id-generator.node-id (HELPDESK_NODE_ID) to a value between 0 and "
+                    + MAX_NODE_ID + " that is unique per replica, or enable id-generator.stateful-set");
+        }
+
+        log.info("ID generator using node ID {}", nodeId);
+        return new IdGenerator(nodeId);
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - epochMillis) << SEQUENCE_BITS;
+
+        // Lock-free: take the current millisecond with sequence 0, or the next value after the
+        // last ID. A sequence overflow carries into the next millisecond and a clock that moves
+        // backwards keeps counting from the last ID, so IDs stay strictly increasing either way.
+        long next = lastTimestampAndSequence.updateAndGet(last -> Math.max(now, last + 1));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    public String nextId(String prefix) {
+        String id = Long.toString(nextId());
+
+        StringBuilder builder = new StringBuilder(prefix.length() + ID_WIDTH).append(prefix);
+        for (int i = id.length(); i < ID_WIDTH; i++) {
+            builder.append('0');
+        }
+        return builder.append(id).toString();
+    }
+
+    // -1 when the pod name carries no usable ordinal
+    static int podOrdinal(String podName) {
+        Matcher matcher = POD_ORDINAL.matcher(podName);
+        if (!matcher.matches()) {
+            return -1;
+        }
+
+        int ordinal = Integer.parseInt(matcher.group(1));
+        return ordinal <= MAX_NODE_ID ? ordinal : -1;
+    }
+}
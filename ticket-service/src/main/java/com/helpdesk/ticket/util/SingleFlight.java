@@ -0,0 +1,72 @@
+package com.helpdesk.ticket.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalesces concurrent calls for the same key: the first caller starts the call, and everyone who
+// asks for that key before it completes shares its result. Nothing is kept afterwards, so a call
+// made once the previous one finished always starts a fresh read. All callers share the same
+// value instance; callers that mutate it must copy it first.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("singleflight.calls")
+                .description("Calls handled by a single-flight group")
+                .tag("name", name)
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.calls")
+                .description("Calls handled by a single-flight group")
+                .tag("name", name)
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in_flight", inFlight, ConcurrentHashMap::size)
+                .description("Distinct keys with a call in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        executed.increment();
+        try {
+            call.get().whenComplete((value, error) -> {
+                // Removed before completing, so callers woken by the result cannot join a finished call
+                inFlight.remove(key, promise);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+
+        // Callers get copies, so cancelling or completing one cannot affect the others
+        return promise.copy();
+    }
+
+    // Called after a write: callers already waiting keep the call in flight, but later callers
+    // start a fresh one instead of joining a read that may predate the write
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+}
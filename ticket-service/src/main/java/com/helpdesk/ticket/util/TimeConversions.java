@@ -0,0 +1,56 @@
+package com.helpdesk.ticket.util;
+
+import com.google.cloud.Timestamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+// LocalDateTime <-> epoch conversions in the JVM's default zone, read once at startup.
+// ZoneId.systemDefault() clones the default TimeZone on every call, and going through
+// ZonedDateTime/Instant allocates two more objects per timestamp; this works on epoch
+// seconds directly and skips the rules lookup entirely when the zone has a fixed offset.
+public final class TimeConversions {
+
+    public static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final ZoneRules RULES = ZONE.getRules();
+    private static final ZoneOffset FIXED_OFFSET = RULES.isFixedOffset() ? RULES.getOffset(Instant.EPOCH) : null;
+
+    private TimeConversions() {
+    }
+
+    public static long toEpochMilli(LocalDateTime localDateTime) {
+        return localDateTime.toEpochSecond(offsetOf(localDateTime)) * 1000 + localDateTime.getNano() / 1_000_000;
+    }
+
+    // Truncates to milliseconds, like the java.util.Date values already stored in Firestore
+    public static Date toDate(LocalDateTime localDateTime) {
+        return localDateTime != null ? new Date(toEpochMilli(localDateTime)) : null;
+    }
+
+    public static LocalDateTime fromEpochMilli(long epochMilli) {
+        return fromEpochSecond(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000) * 1_000_000);
+    }
+
+    public static LocalDateTime fromEpochSecond(long epochSecond, int nanos) {
+        ZoneOffset offset = FIXED_OFFSET != null ? FIXED_OFFSET : RULES.getOffset(Instant.ofEpochSecond(epochSecond));
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, offset);
+    }
+
+    public static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? fromEpochMilli(date.getTime()) : null;
+    }
+
+    public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? fromEpochSecond(timestamp.getSeconds(), timestamp.getNanos()) : null;
+    }
+
+    // Gaps and overlaps resolve to the offset before the transition, as LocalDateTime.atZone does
+    private static ZoneOffset offsetOf(LocalDateTime localDateTime) {
+        return FIXED_OFFSET != null ? FIXED_OFFSET : RULES.getOffset(localDateTime);
+    }
+}
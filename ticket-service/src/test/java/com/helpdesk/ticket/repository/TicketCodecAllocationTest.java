@@ -0,0 +1,119 @@
+package com.helpdesk.ticket.repository;
+
+import com.google.cloud.Timestamp;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.model.TicketCategory;
+import com.helpdesk.ticket.model.TicketPriority;
+import com.helpdesk.ticket.util.TimeConversions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketCodecAllocationTest {
+
+	private static final int WARMUP_ROUNDS = 200_000;
+	private static final int MEASURED_ROUNDS = 200_000;
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 29, 1, 30, 15, 123_000_000);
+
+	@Test
+	void timeConversionsMatchZonedDateTimeAcrossAYear() {
+		LocalDateTime time = LocalDateTime.of(2026, 1, 1, 0, 7, 30, 250_000_000);
+		for (int hour = 0; hour < 366 * 24; hour++, time = time.plusHours(1)) {
+			Date expected = Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+			assertThat(TimeConversions.toDate(time)).isEqualTo(expected);
+
+			Timestamp stored = Timestamp.of(expected);
+			assertThat(TimeConversions.toLocalDateTime(stored))
+					.isEqualTo(stored.toDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+		}
+	}
+
+	@Test
+	void encodeAllocatesLessThanTheZonedDateTimeMapping() {
+		Ticket ticket = ticket();
+
+		long legacy = bytesPerRound(round -> legacyEncode(ticket).size());
+		long codec = bytesPerRound(round -> TicketCodec.encode(ticket).size());
+
+		assertThat(codec).isLessThan(legacy);
+	}
+
+	@Test
+	void decodeConversionsAllocateLessThanTheZonedDateTimeMapping() {
+		Timestamp createdAt = Timestamp.of(TimeConversions.toDate(CREATED_AT));
+
+		long legacy = bytesPerRound(round -> {
+			LocalDateTime time = createdAt.toDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+			return time.getNano() + TicketPriority.valueOf("HIGH").ordinal() + TicketCategory.valueOf("NETWORK").ordinal();
+		});
+		long codec = bytesPerRound(round -> {
+			LocalDateTime time = TimeConversions.toLocalDateTime(createdAt);
+			return time.getNano() + TicketCodec.priority("HIGH").ordinal() + TicketCodec.category("NETWORK").ordinal();
+		});
+
+		assertThat(codec).isLessThan(legacy);
+	}
+
+	// Allocated bytes on this thread per call, after a warmup so the JIT has compiled the path
+	private static long bytesPerRound(LongUnaryOperator operation) {
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long sink = 0;
+
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			sink += operation.applyAsLong(i);
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			sink += operation.applyAsLong(i);
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		assertThat(sink).isNotZero();
+		return allocated / MEASURED_ROUNDS;
+	}
+
+	private static Ticket ticket() {
+		return Ticket.builder()
+				.ticketId("TKT-1737456789012")
+				.employeeId("EMP-001")
+				.employeeName("Jane Doe")
+				.category(TicketCategory.NETWORK)
+				.description("VPN drops every few minutes")
+				.priority(TicketPriority.HIGH)
+				.createdAt(CREATED_AT)
+				.createdBy("Jane Doe")
+				.slaDueDate(CREATED_AT.plusHours(24))
+				.slaViolated(true)
+				.slaViolatedAt(CREATED_AT.plusHours(24))
+				.build();
+	}
+
+	// The mapping TicketRepository used before TicketCodec
+	private static Map<String, Object> legacyEncode(Ticket ticket) {
+		Map<String, Object> map = new HashMap<>();
+		map.put("ticketId", ticket.getTicketId());
+		map.put("employeeId", ticket.getEmployeeId());
+		map.put("employeeName", ticket.getEmployeeName());
+		map.put("category", ticket.getCategory().name());
+		map.put("description", ticket.getDescription());
+		map.put("priority", ticket.getPriority().name());
+		map.put("createdAt", Date.from(ticket.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+		map.put("createdBy", ticket.getCreatedBy());
+		map.put("slaDueDate", Date.from(ticket.getSlaDueDate().atZone(ZoneId.systemDefault()).toInstant()));
+		map.put("slaViolated", ticket.isSlaViolated());
+		map.put("slaViolatedAt", Date.from(ticket.getSlaViolatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+		return map;
+	}
+}
@@ -0,0 +1,115 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlaDeadlineIndexTest {
+
+	private final TicketRepository ticketRepository = mock(TicketRepository.class);
+	private final SlaDeadlineIndex index = new SlaDeadlineIndex(ticketRepository);
+	private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+	@Test
+	void putAndRemoveKeepCountsInStep() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of());
+		index.load();
+
+		index.put(ticket("TKT-1", now.minusHours(1)));
+		index.put(ticket("TKT-2", now.plusHours(1)));
+		index.put(ticket("TKT-3", now.plusDays(1)));
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(3, 1, 1, 1));
+
+		index.put(ticket("TKT-2", now.plusDays(2)));
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(3, 1, 0, 2));
+
+		index.remove("TKT-1");
+		index.put(ticket("TKT-3", null));
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(1, 0, 0, 1));
+		assertThat(index.findViolated(now)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void advancingMovesTicketsAcrossBoundaries() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(
+				ticket("TKT-1", now.plusMinutes(30)),
+				ticket("TKT-2", now.plusHours(3))));
+		index.load();
+
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(2, 0, 1, 1));
+		assertThat(index.findDueWithin(now, SlaService.CRITICAL_WINDOW)).containsExactly("TKT-1");
+
+		LocalDateTime later = now.plusMinutes(90);
+		assertThat(index.countsAt(later)).isEqualTo(new SlaDeadlineIndex.SlaCounts(2, 1, 1, 0));
+		assertThat(index.findViolated(later)).containsExactly("TKT-1");
+		assertThat(index.findPendingViolations(later)).extracting(SlaDeadlineIndex.DeadlineKey::ticketId)
+				.containsExactly("TKT-1");
+
+		// Counters never move backwards
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(2, 1, 1, 0));
+		assertThat(index.countsAt(now.plusHours(4))).isEqualTo(new SlaDeadlineIndex.SlaCounts(2, 2, 0, 0));
+	}
+
+	@Test
+	void markedViolationsAreNoLongerPending() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(ticket("TKT-1", now.minusHours(1))));
+		index.load();
+
+		List<SlaDeadlineIndex.DeadlineKey> pending = index.findPendingViolations(now);
+		assertThat(pending).hasSize(1);
+
+		index.markViolated(pending.get(0));
+		assertThat(index.findPendingViolations(now)).isEmpty();
+		assertThat(index.findViolated(now)).containsExactly("TKT-1");
+	}
+
+	@Test
+	void reloadPicksUpChangesFromOtherReplicas() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(
+				ticket("TKT-1", now.plusDays(1)),
+				ticket("TKT-2", now.plusDays(1))));
+		index.load();
+
+		// Moved and deleted elsewhere, plus one created elsewhere
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(
+				ticket("TKT-1", now.minusHours(1)),
+				ticket("TKT-3", now.plusHours(1))));
+		index.reload();
+
+		assertThat(index.findViolated(now)).containsExactly("TKT-1");
+		assertThat(index.findDueWithin(now, Duration.ofDays(2))).containsExactly("TKT-3");
+		assertThat(index.countsAt(now)).isEqualTo(new SlaDeadlineIndex.SlaCounts(2, 1, 1, 0));
+	}
+
+	@Test
+	void writesDuringReloadWinOverTheLoadedState() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(ticket("TKT-1", now.plusDays(1))));
+		index.load();
+
+		when(ticketRepository.findAllSlaDeadlines()).thenAnswer(invocation -> {
+			index.put(ticket("TKT-1", now.plusDays(3)));
+			index.put(ticket("TKT-2", now.plusDays(3)));
+			return List.of(ticket("TKT-1", now.plusDays(1)));
+		});
+		index.reload();
+
+		assertThat(index.findDueWithin(now, Duration.ofDays(2))).isEmpty();
+		assertThat(index.findDueWithin(now, Duration.ofDays(4))).containsExactlyInAnyOrder("TKT-1", "TKT-2");
+	}
+
+	private static Ticket ticket(String ticketId, LocalDateTime slaDueDate) {
+		return Ticket.builder()
+				.ticketId(ticketId)
+				.slaDueDate(slaDueDate)
+				.build();
+	}
+}
@@ -0,0 +1,83 @@
+package com.helpdesk.ticket.service;
+
+import com.helpdesk.ticket.config.SlaConfig;
+import com.helpdesk.ticket.dto.SlaReportResponse;
+import com.helpdesk.ticket.dto.SlaStatusResponse;
+import com.helpdesk.ticket.model.Ticket;
+import com.helpdesk.ticket.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlaReportEngineTest {
+
+	private final LocalDateTime now = LocalDateTime.now();
+
+	private final Ticket overdue = ticket("TKT-1", now.minusHours(3));
+	private final Ticket critical = ticket("TKT-2", now.plusHours(1));
+	private final Ticket onTrack = ticket("TKT-3", now.plusDays(2));
+
+	private final TicketRepository ticketRepository = mock(TicketRepository.class);
+	private final SlaDeadlineIndex slaDeadlineIndex = new SlaDeadlineIndex(ticketRepository);
+	private final SlaConfig slaConfig = new SlaConfig();
+	private final SlaReportEngine engine =
+			new SlaReportEngine(slaDeadlineIndex, ticketRepository, new SlaService(slaConfig), slaConfig);
+
+	@Test
+	void countsComeFromTheIndexAndFollowItsChanges() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(overdue, critical, onTrack));
+		slaDeadlineIndex.load();
+
+		assertCounts(engine.generateReport(false, false), 3, 1, 1, 1);
+
+		slaDeadlineIndex.put(ticket("TKT-4", now.plusMinutes(30)));
+		slaDeadlineIndex.put(ticket("TKT-3", now.minusMinutes(5)));
+		assertCounts(engine.generateReport(false, false), 4, 2, 2, 0);
+
+		slaDeadlineIndex.remove("TKT-1");
+		assertCounts(engine.generateReport(false, false), 3, 1, 2, 0);
+
+		// Nothing was counted in Firestore
+		verify(ticketRepository, never()).countWithSlaDueDate();
+		verify(ticketRepository, never()).countSlaDueBefore(any());
+		verify(ticketRepository, never()).countSlaDueBetween(any(), any());
+	}
+
+	@Test
+	void listedTicketsAreReadByIdFromTheIndexedDeadlines() {
+		when(ticketRepository.findAllSlaDeadlines()).thenReturn(List.of(overdue, critical, onTrack));
+		when(ticketRepository.findAllById(List.of("TKT-1"))).thenReturn(List.of(overdue.toBuilder().build()));
+		when(ticketRepository.findAllById(List.of("TKT-2"))).thenReturn(List.of(critical.toBuilder().build()));
+		slaDeadlineIndex.load();
+
+		SlaReportResponse report = engine.generateReport(false, true);
+
+		assertCounts(report, 3, 1, 1, 1);
+		assertThat(report.getViolatedTickets()).extracting(SlaStatusResponse::getTicketId).containsExactly("TKT-1");
+		assertThat(report.getViolatedTickets()).allMatch(SlaStatusResponse::isSlaViolated);
+		assertThat(report.getCriticalTickets()).extracting(SlaStatusResponse::getTicketId).containsExactly("TKT-2");
+	}
+
+	private static void assertCounts(SlaReportResponse report, int total, int violated, int critical, int onTrack) {
+		assertThat(report.getTotalTickets()).isEqualTo(total);
+		assertThat(report.getViolatedCount()).isEqualTo(violated);
+		assertThat(report.getCriticalCount()).isEqualTo(critical);
+		assertThat(report.getOnTrackCount()).isEqualTo(onTrack);
+	}
+
+	private static Ticket ticket(String ticketId, LocalDateTime slaDueDate) {
+		return Ticket.builder()
+				.ticketId(ticketId)
+				.createdAt(slaDueDate.minusHours(24))
+				.slaDueDate(slaDueDate)
+				.build();
+	}
+}
@@ -0,0 +1,103 @@
+package com.helpdesk.ticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorTest {
+
+	private static final int THREADS = 8;
+	private static final int IDS_PER_THREAD = 250_000;
+
+	@Test
+	void concurrentGenerationProducesUniqueIncreasingIds() throws Exception {
+		IdGenerator generator = new IdGenerator(1);
+		Set<Long> ids = ConcurrentHashMap.newKeySet(THREADS * IDS_PER_THREAD);
+		long[][] generated = new long[THREADS][IDS_PER_THREAD];
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			long[] batch = generated[t];
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < batch.length; i++) {
+					batch[i] = generator.nextId();
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		for (long[] batch : generated) {
+			for (int i = 0; i < batch.length; i++) {
+				ids.add(batch[i]);
+				if (i > 0) {
+					assertThat(batch[i]).isGreaterThan(batch[i - 1]);
+				}
+			}
+		}
+
+		assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+	}
+
+	@Test
+	void idsFromDifferentNodesNeverCollideAndSortByCreationOrder() {
+		IdGenerator nodeA = new IdGenerator(1);
+		IdGenerator nodeB = new IdGenerator(2);
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		String previous = "";
+		for (int i = 0; i < 100_000; i++) {
+			String a = nodeA.nextId("TKT-");
+			String b = nodeB.nextId("TKT-");
+
+			assertThat(a).hasSize(b.length()).isGreaterThan(previous);
+			assertThat(ids.add(a)).isTrue();
+			assertThat(ids.add(b)).isTrue();
+			previous = a;
+		}
+	}
+
+	@Test
+	void podOrdinalIsOnlyTakenFromStatefulSetPodNames() {
+		assertThat(IdGenerator.podOrdinal("service-3")).isEqualTo(3);
+		assertThat(IdGenerator.podOrdinal("service-7d9f8b6c4-x2k4p")).isEqualTo(-1);
+		assertThat(IdGenerator.podOrdinal("service-99999")).isEqualTo(-1);
+		assertThat(IdGenerator.podOrdinal("service-1024")).isEqualTo(-1);
+	}
+
+	@Test
+	void nodeIdComesOnlyFromExplicitSettings() {
+		assertThat(nodeOf(IdGenerator.forNode(5, "service-3", false))).isEqualTo(5);
+		assertThat(nodeOf(IdGenerator.forNode(-1, "service-3", false))).isEqualTo(3);
+		assertThat(nodeOf(IdGenerator.forNode(-1, null, true))).isZero();
+
+		// Host names such as ip-10-0-3-17 are never read unless running as a StatefulSet
+		assertThatThrownBy(() -> IdGenerator.forNode(-1, null, false)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> IdGenerator.forNode(-1, "service-7d9f8b6c4-x2k4p", true))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static long nodeOf(IdGenerator generator) {
+		return (generator.nextId() >>> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE_ID;
+	}
+}